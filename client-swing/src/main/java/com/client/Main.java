@@ -1,14 +1,9 @@
 package com.client;
 
-import java.util.List;
-
-import com.client.constants.Constants;
-import com.client.core.AppState;
 import com.client.core.BaseFrame;
 import com.client.core.ScreenManager;
-import com.client.model.Currency;
+import com.client.screens.login.LoginBootstrap;
 import com.client.screens.login.LoginScreen;
-import com.client.utils.HttpClient;
 
 public class Main {
     public static void main(String[] args) {
@@ -25,23 +20,10 @@ public class Main {
     }
 
     private static void preloadCurrencies() {
-        new Thread(() -> {
-            try {
-                // using client solves lot of code duplication, better than okhttp for simple get requests
-                String jsonResponse = HttpClient.get(Constants.BASE_URL + "/currency");
-                if (jsonResponse == null || jsonResponse.isEmpty()) {
-                    return;
-                }
-                // parse list of currencies
-                List<Currency> list = HttpClient.fromJsonList(jsonResponse, Currency.class);
-                if (list != null) {
-                    // store it in state management throught the app
-                    AppState.getInstance().setCurrencies(list);
-                }
-
-            } catch (Exception ex) {
-                ex.printStackTrace();
-            }
-        }).start(); // craete and start thread immediately, no need to keep a reference
+        // runs on the http client's threads, login reuses the same download if it is still running
+        LoginBootstrap.loadCurrencies().exceptionally(ex -> {
+            ex.printStackTrace();
+            return null;
+        });
     }
 }
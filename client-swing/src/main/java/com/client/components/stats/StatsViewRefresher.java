@@ -8,7 +8,6 @@ import java.util.Map;
 
 import com.client.constants.StatsScreenConstants;
 import com.client.core.AppState;
-import com.client.model.DataEntry;
 import com.client.screens.stats.StatsScreen;
 import com.client.screens.stats.StatsState;
 
@@ -16,22 +15,20 @@ public class StatsViewRefresher {
 
     private final StatsScreen scr;
     private final StatsState state;
-    private final StatsAggregator aggregator;
     private final LegendBuilder legendBuilder;
 
     public StatsViewRefresher(StatsScreen scr,
                               StatsState state,
-                              StatsAggregator aggregator,
                               LegendBuilder legendBuilder) {
         this.scr = scr;
         this.state = state;
-        this.aggregator = aggregator;
         this.legendBuilder = legendBuilder;
     }
 
     public void refresh() {
-        List<DataEntry> all = AppState.getInstance().getEntries();
-        StatsAggregator.AggregationResult result = aggregator.aggregate(all, state);
+        // AppState keeps these totals up to date as entries change, nothing is counted here
+        StatsAggregator.AggregationResult result = AppState.getInstance()
+                .getStats(state.getMode(), state.getCurrentDate(), state.isShowIncome());
 
         // Build slices sorted by amount descending
         List<Map.Entry<String, Long>> sorted = new ArrayList<>(result.categoryTotals.entrySet());
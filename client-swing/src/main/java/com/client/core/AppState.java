@@ -1,12 +1,21 @@
 package com.client.core;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.client.components.dashboard.DayGroup;
+import com.client.components.stats.StatsAggregator;
+import com.client.constants.StatsScreenConstants;
 import com.client.model.Currency;
 import com.client.model.DataEntry;
 import com.client.model.ExpenseCategory;
+import com.client.utils.HttpClient;
 
 // app state is a singleton that holds global state like logged in user, entries, settings, etc.
 // it similart to a redux store in react
@@ -17,6 +26,9 @@ public class AppState {
     private List<Currency> currencies = new ArrayList<>(); // list of supported currencies
     private String username; // logged in username
     private List<DataEntry> entries; // all expense/income entries for the user
+    private final MonthIndex monthIndex = new MonthIndex(); // the entries above filed by month and day, kept up to date
+    private final StatsTotals statsTotals = new StatsTotals(); // running stats screen totals of the entries above
+    private Map<String, DataEntry> localChanges; // id -> entry as changed on this client, null for a delete; see trackChanges
     private String currencyCode = "USD";   // e.g. "INR" // default currency code
     private String currencySymbol = "$";   // e.g. "₹" // default currency symbol
     private List<ExpenseCategory> categories = new ArrayList<>(); // list of expense categories
@@ -58,18 +70,55 @@ public class AppState {
 
     public void setEntries(List<DataEntry> entries) {
         this.entries = entries;
+        monthIndex.rebuild(entries);
+        statsTotals.rebuild(entries);
     }
 
+    // the dashboard's day groups of one month, newest day first, with their income / expense totals; read only
+    public Collection<DayGroup> getMonth(YearMonth month) {
+        return monthIndex.getMonth(month);
+    }
+
+    // the stats screen's totals of one period, kept up to date as entries change; read only
+    public StatsAggregator.AggregationResult getStats(StatsScreenConstants.AggregationMode mode, LocalDate date, boolean income) {
+        return statsTotals.get(mode, date, income);
+    }
+
+    // from now on remember which entries this client adds, edits or deletes, until takeChanges
+    // for a list downloaded meanwhile, which has to be merged with them instead of replacing them
+    public void trackChanges() {
+        localChanges = new LinkedHashMap<>();
+    }
+
+    // the changes since trackChanges, latest per id, and stop tracking; empty when nothing was tracked
+    public Map<String, DataEntry> takeChanges() {
+        Map<String, DataEntry> changes = localChanges == null ? Map.of() : localChanges;
+        localChanges = null;
+        return changes;
+    }
+
+    // every change to the entries has to go through the methods below, or the month index and the stats totals go stale
     public void addEntry(DataEntry entry) {
         this.entries.add(entry);
+        monthIndex.add(entry);
+        statsTotals.add(entry);
+        if (localChanges != null) {
+            localChanges.put(entry.getId(), entry);
+        }
     }
 
     // Update an existing entry based on its ID
+    // also called with the entry that is already in the list after it was edited in place
     public void updateEntry(DataEntry updatedEntry) {
         for (int i = 0; i < entries.size(); i++) {
             // same id find and update
             if (entries.get(i).getId().equals(updatedEntry.getId())) {
-                entries.set(i, updatedEntry);
+                DataEntry previous = entries.set(i, updatedEntry);
+                monthIndex.update(previous, updatedEntry);
+                statsTotals.update(previous, updatedEntry);
+                if (localChanges != null) {
+                    localChanges.put(updatedEntry.getId(), updatedEntry);
+                }
                 break;
             }
         }
@@ -77,17 +126,30 @@ public class AppState {
 
 // Delete an entry by its ID
     public void deleteEntry(String id) {
-        // short hand syntax to remove if id matches
-        entries.removeIf(e -> e.getId().equals(id));
+        for (Iterator<DataEntry> it = entries.iterator(); it.hasNext(); ) {
+            DataEntry e = it.next();
+            if (e.getId().equals(id)) {
+                it.remove();
+                monthIndex.remove(e);
+                statsTotals.remove(e);
+            }
+        }
+        if (localChanges != null) {
+            localChanges.put(id, null);
+        }
     }
 
     // when user logs out, reset the state
     public void reset() {
         this.username = null;
+        HttpClient.clearCache();
 
         if (entries != null) {
             entries.clear();
         }
+        monthIndex.clear();
+        statsTotals.clear();
+        localChanges = null;
     }
 
     // default currency is USD    
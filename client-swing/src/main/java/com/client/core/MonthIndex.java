@@ -0,0 +1,120 @@
+package com.client.core;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.client.components.dashboard.DayGroup;
+import com.client.model.DataEntry;
+
+// the user's entries filed by month and day, what the dashboard shows for one month is a lookup
+// every DayGroup keeps its income / expense totals, adding, changing or removing an entry only touches its own day
+//
+// entries are edited in place (AddEntryController sets the fields of the entry that is in the list), so where an entry
+// was filed and what it added to the totals is remembered per entry object, and taken back before it is filed again
+// entries without a date, or with one that does not parse, are not filed, as the dashboard skipped them before
+class MonthIndex {
+
+    // the day and the amounts an entry was filed with
+    private record Filed(LocalDate date, boolean income, int amount) {}
+
+    private final Map<YearMonth, TreeMap<LocalDate, DayGroup>> months = new HashMap<>();
+    private final Map<DataEntry, Filed> filed = new IdentityHashMap<>();
+
+    void rebuild(List<DataEntry> entries) {
+        clear();
+        if (entries != null) {
+            for (DataEntry e : entries) {
+                add(e);
+            }
+        }
+    }
+
+    void clear() {
+        months.clear();
+        filed.clear();
+    }
+
+    void add(DataEntry e) {
+        if (e == null || e.getDate() == null || filed.containsKey(e)) return;
+
+        LocalDate date;
+        try {
+            date = LocalDate.parse(e.getDate());
+        } catch (DateTimeParseException ex) {
+            return;
+        }
+
+        boolean income = "Income".equalsIgnoreCase(e.getType());
+        DayGroup g = months
+            .computeIfAbsent(YearMonth.from(date), k -> new TreeMap<>(Collections.reverseOrder()))
+            .computeIfAbsent(date, DayGroup::new);
+
+        if (income)
+            g.totalIncome += e.getAmount();
+        else
+            g.totalExpense += e.getAmount();
+
+        g.entries.add(e);
+        filed.put(e, new Filed(date, income, e.getAmount()));
+    }
+
+    void remove(DataEntry e) {
+        Filed f = filed.remove(e);
+        if (f == null) return;
+
+        YearMonth month = YearMonth.from(f.date());
+        TreeMap<LocalDate, DayGroup> days = months.get(month);
+        DayGroup g = days.get(f.date());
+
+        if (f.income())
+            g.totalIncome -= f.amount();
+        else
+            g.totalExpense -= f.amount();
+
+        g.entries.removeIf(x -> x == e);
+        if (g.entries.isEmpty()) {
+            days.remove(f.date());
+            if (days.isEmpty()) {
+                months.remove(month);
+            }
+        }
+    }
+
+    // an entry whose fields changed, or that replaced previous in the list
+    // an entry that stays on its day keeps its place in the day, one that moves goes last in its new day
+    void update(DataEntry previous, DataEntry e) {
+        Filed f = filed.get(previous);
+        if (previous == e && f != null && e.getDate() != null && e.getDate().equals(f.date().toString())) {
+            DayGroup g = months.get(YearMonth.from(f.date())).get(f.date());
+            boolean income = "Income".equalsIgnoreCase(e.getType());
+
+            if (f.income())
+                g.totalIncome -= f.amount();
+            else
+                g.totalExpense -= f.amount();
+            if (income)
+                g.totalIncome += e.getAmount();
+            else
+                g.totalExpense += e.getAmount();
+
+            filed.put(e, new Filed(f.date(), income, e.getAmount()));
+            return;
+        }
+        remove(previous);
+        add(e);
+    }
+
+    // newest day first, entries of a day in the order they were filed; read only
+    Collection<DayGroup> getMonth(YearMonth month) {
+        TreeMap<LocalDate, DayGroup> days = months.get(month);
+        return days == null ? Collections.emptyList() : Collections.unmodifiableCollection(days.values());
+    }
+}
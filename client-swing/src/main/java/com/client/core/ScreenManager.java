@@ -23,4 +23,9 @@ public class ScreenManager {
         frame.revalidate();
         frame.repaint();
     }
+
+    // the screen showing right now
+    public static JPanel current() {
+        return frame == null || !(frame.getContentPane() instanceof JPanel panel) ? null : panel;
+    }
 }
@@ -0,0 +1,169 @@
+package com.client.core;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.client.components.stats.StatsAggregator.AggregationResult;
+import com.client.constants.StatsScreenConstants.AggregationMode;
+import com.client.model.DataEntry;
+
+// running totals for the stats screen, what StatsAggregator would count for every mode, period and type
+// each entry is added to three periods of its side (income or expense): its month, its year and the total,
+// each period keeps its category totals and time series buckets, so adding, changing or removing an entry
+// is a few map updates no matter how many entries there are
+// a period's AggregationResult is built when it is first asked for and reused until one of its entries changes
+//
+// like MonthIndex, what an entry was counted with is remembered per entry object, entries are edited in place
+// entries without a date, or with one that does not parse, are not counted, as the stats screen skipped them before
+class StatsTotals {
+
+    // the values an entry was counted with
+    private record Counted(LocalDate date, boolean income, String category, int amount) {}
+
+    // a sum and how many entries are in it, a key is dropped when its last entry is taken out
+    private static class Bucket {
+        long sum;
+        int count;
+    }
+
+    private static class Period {
+        final Map<String, Bucket> categories = new LinkedHashMap<>();
+        final Map<String, Bucket> series = new LinkedHashMap<>();
+        AggregationResult result; // null when something changed since it was built
+
+        // sign 1 counts an amount in, -1 takes it out
+        void count(String category, String seriesKey, int amount, int sign) {
+            bucket(categories, category, amount, sign);
+            bucket(series, seriesKey, amount, sign);
+            result = null;
+        }
+
+        AggregationResult result() {
+            if (result == null) {
+                long total = 0;
+                Map<String, Long> categoryTotals = new LinkedHashMap<>();
+                for (Map.Entry<String, Bucket> e : categories.entrySet()) {
+                    categoryTotals.put(e.getKey(), e.getValue().sum);
+                    total += e.getValue().sum;
+                }
+                Map<String, Long> seriesTotals = new LinkedHashMap<>();
+                for (Map.Entry<String, Bucket> e : series.entrySet()) {
+                    seriesTotals.put(e.getKey(), e.getValue().sum);
+                }
+                result = new AggregationResult(categoryTotals, total, seriesTotals);
+            }
+            return result;
+        }
+
+        private static void bucket(Map<String, Bucket> buckets, String key, int amount, int sign) {
+            Bucket b = buckets.computeIfAbsent(key, k -> new Bucket());
+            b.sum += (long) sign * amount;
+            b.count += sign;
+            if (b.count == 0) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    // the periods of one side
+    private static class Side {
+        final Map<YearMonth, Period> months = new HashMap<>();
+        final Map<Integer, Period> years = new HashMap<>();
+        final Period total = new Period();
+    }
+
+    private static final AggregationResult NOTHING = new AggregationResult(Map.of(), 0, Map.of());
+
+    private final Side income = new Side();
+    private final Side expense = new Side();
+    private final Map<DataEntry, Counted> counted = new IdentityHashMap<>();
+
+    void rebuild(List<DataEntry> entries) {
+        clear();
+        if (entries != null) {
+            for (DataEntry e : entries) {
+                add(e);
+            }
+        }
+    }
+
+    void clear() {
+        for (Side side : new Side[] { income, expense }) {
+            side.months.clear();
+            side.years.clear();
+            side.total.categories.clear();
+            side.total.series.clear();
+            side.total.result = null;
+        }
+        counted.clear();
+    }
+
+    void add(DataEntry e) {
+        if (e == null || e.getDate() == null || counted.containsKey(e)) return;
+
+        LocalDate date;
+        try {
+            date = LocalDate.parse(e.getDate());
+        } catch (DateTimeParseException ex) {
+            return;
+        }
+
+        Counted c = new Counted(
+            date,
+            "Income".equalsIgnoreCase(e.getType()),
+            e.getCategory() != null ? e.getCategory() : "Other",
+            e.getAmount()
+        );
+        count(c, 1);
+        counted.put(e, c);
+    }
+
+    void remove(DataEntry e) {
+        Counted c = counted.remove(e);
+        if (c != null) {
+            count(c, -1);
+        }
+    }
+
+    // an entry whose fields changed, or that replaced previous in the list
+    void update(DataEntry previous, DataEntry e) {
+        remove(previous);
+        add(e);
+    }
+
+    // the ready result for a period, the same StatsAggregator would count; read only
+    AggregationResult get(AggregationMode mode, LocalDate date, boolean showIncome) {
+        Side side = showIncome ? income : expense;
+        Period period = switch (mode) {
+            case MONTH -> side.months.get(YearMonth.from(date));
+            case YEAR  -> side.years.get(date.getYear());
+            case TOTAL -> side.total;
+        };
+        return period == null ? NOTHING : period.result();
+    }
+
+    // sign 1 counts the entry in, -1 takes it out
+    private void count(Counted c, int sign) {
+        Side side = c.income() ? income : expense;
+        LocalDate d = c.date();
+
+        // series keys as StatsAggregator makes them: day of month, month name, year
+        count(side.months, YearMonth.from(d), c, String.valueOf(d.getDayOfMonth()), sign);
+        count(side.years, d.getYear(), c, d.getMonth().name().substring(0, 3), sign);
+        side.total.count(c.category(), String.valueOf(d.getYear()), c.amount(), sign);
+    }
+
+    private static <K> void count(Map<K, Period> periods, K key, Counted c, String seriesKey, int sign) {
+        Period period = periods.computeIfAbsent(key, k -> new Period());
+        period.count(c.category(), seriesKey, c.amount(), sign);
+        if (period.categories.isEmpty()) {
+            periods.remove(key);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.client.core;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import com.client.constants.Constants;
+import com.client.model.DataEntry;
+import com.client.model.EntryColumns;
+import com.client.model.ExpenseCategory;
+import com.client.utils.HttpClient;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// local copy of the user's entries and categories as of the last sync, stored in ~/.moneymanager/<username>.json
+// at login only what changed since that copy is downloaded from /api/sync and merged into it,
+// in the server's columnar smile format; the local copy itself stays plain json
+public class SyncCache {
+
+    private static final Path DIR = Paths.get(System.getProperty("user.home"), ".moneymanager");
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    // same shape as the server's sync response, so one class is used for both
+    public static class Snapshot {
+        private long version;
+        private boolean full;
+        private List<DataEntry> entries = new ArrayList<>();
+        private List<ExpenseCategory> categories = new ArrayList<>();
+        private List<String> deletedEntries = new ArrayList<>();
+        private List<String> deletedCategories = new ArrayList<>();
+
+        public Snapshot() {}
+
+        public long getVersion() { return version; }
+        public void setVersion(long version) { this.version = version; }
+
+        public boolean isFull() { return full; }
+        public void setFull(boolean full) { this.full = full; }
+
+        public List<DataEntry> getEntries() { return entries; }
+        public void setEntries(List<DataEntry> entries) { this.entries = entries; }
+
+        public List<ExpenseCategory> getCategories() { return categories; }
+        public void setCategories(List<ExpenseCategory> categories) { this.categories = categories; }
+
+        public List<String> getDeletedEntries() { return deletedEntries; }
+        public void setDeletedEntries(List<String> deletedEntries) { this.deletedEntries = deletedEntries; }
+
+        public List<String> getDeletedCategories() { return deletedCategories; }
+        public void setDeletedCategories(List<String> deletedCategories) { this.deletedCategories = deletedCategories; }
+    }
+
+    // the server's sync response with the entries in its columnar format, smaller than the row form of Snapshot
+    public static class Delta {
+        private long version;
+        private boolean full;
+        private EntryColumns entries = new EntryColumns();
+        private List<ExpenseCategory> categories = new ArrayList<>();
+        private List<String> deletedEntries = new ArrayList<>();
+        private List<String> deletedCategories = new ArrayList<>();
+
+        public Delta() {}
+
+        public long getVersion() { return version; }
+        public void setVersion(long version) { this.version = version; }
+
+        public boolean isFull() { return full; }
+        public void setFull(boolean full) { this.full = full; }
+
+        public EntryColumns getEntries() { return entries; }
+        public void setEntries(EntryColumns entries) { this.entries = entries; }
+
+        public List<ExpenseCategory> getCategories() { return categories; }
+        public void setCategories(List<ExpenseCategory> categories) { this.categories = categories; }
+
+        public List<String> getDeletedEntries() { return deletedEntries; }
+        public void setDeletedEntries(List<String> deletedEntries) { this.deletedEntries = deletedEntries; }
+
+        public List<String> getDeletedCategories() { return deletedCategories; }
+        public void setDeletedCategories(List<String> deletedCategories) { this.deletedCategories = deletedCategories; }
+
+        Snapshot toSnapshot(String username) {
+            Snapshot snapshot = new Snapshot();
+            snapshot.setVersion(version);
+            snapshot.setFull(full);
+            snapshot.setEntries(entries.toEntries(username));
+            snapshot.setCategories(categories);
+            snapshot.setDeletedEntries(deletedEntries);
+            snapshot.setDeletedCategories(deletedCategories);
+            return snapshot;
+        }
+    }
+
+    // bring the local copy up to date, the future completes with null if the server could not be reached
+    // the local file is read and written on background threads, never on the caller's
+    public static CompletableFuture<Snapshot> syncAsync(String username) {
+        return CompletableFuture.supplyAsync(() -> load(username)).thenCompose(local -> {
+            String url = Constants.BASE_URL + "/api/sync/" + username;
+            if (local != null) {
+                url += "?since=" + local.getVersion();
+            }
+
+            return HttpClient.getColumnsAsync(url, Delta.class).thenApply(delta -> {
+                Snapshot changes = delta.toSnapshot(username);
+                Snapshot merged = local == null || changes.isFull() ? changes : merge(local, changes);
+                merged.setFull(true);
+                merged.getDeletedEntries().clear();
+                merged.getDeletedCategories().clear();
+                save(username, merged);
+                return merged;
+            });
+        }).exceptionally(e -> {
+            e.printStackTrace();
+            return null;
+        });
+    }
+
+    // apply a delta on top of the local copy: drop deleted ids, replace or add changed documents
+    private static Snapshot merge(Snapshot local, Snapshot changes) {
+        Set<String> deletedEntries = new HashSet<>(changes.getDeletedEntries());
+        Map<String, DataEntry> entries = new LinkedHashMap<>();
+        for (DataEntry e : local.getEntries()) {
+            if (!deletedEntries.contains(e.getId())) {
+                entries.put(e.getId(), e);
+            }
+        }
+        for (DataEntry e : changes.getEntries()) {
+            entries.put(e.getId(), e);
+        }
+
+        Set<String> deletedCategories = new HashSet<>(changes.getDeletedCategories());
+        Map<String, ExpenseCategory> categories = new LinkedHashMap<>();
+        for (ExpenseCategory c : local.getCategories()) {
+            if (!deletedCategories.contains(c.getId())) {
+                categories.put(c.getId(), c);
+            }
+        }
+        for (ExpenseCategory c : changes.getCategories()) {
+            categories.put(c.getId(), c);
+        }
+
+        Snapshot merged = new Snapshot();
+        merged.setVersion(changes.getVersion());
+        merged.setEntries(new ArrayList<>(entries.values()));
+        merged.setCategories(new ArrayList<>(categories.values()));
+        return merged;
+    }
+
+    private static Path file(String username) {
+        // keep the username from escaping the cache directory
+        return DIR.resolve(username.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+    }
+
+    private static Snapshot load(String username) {
+        File f = file(username).toFile();
+        if (!f.isFile()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(f, Snapshot.class);
+        } catch (Exception e) {
+            // unreadable cache, a full sync replaces it
+            return null;
+        }
+    }
+
+    // written to a temp file and moved into place, so a crash never leaves half a cache behind
+    private static void save(String username, Snapshot snapshot) {
+        try {
+            Files.createDirectories(DIR);
+            Path target = file(username);
+            Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), snapshot);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.client.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// GET /api/bootstrap in the columnar format: the user's categories, the currencies and the first page of entries
+// of the asked window, nextCursor continues the entries on the paginated entries endpoint, null when they are complete
+// the profile in the response is not used yet and is skipped when decoding
+public class Bootstrap {
+    private List<ExpenseCategory> categories = new ArrayList<>();
+    private List<Currency> currencies = new ArrayList<>();
+    private EntryColumns entries = new EntryColumns();
+    private String nextCursor;
+
+    public Bootstrap() {}
+
+    public List<ExpenseCategory> getCategories() { return categories; }
+    public void setCategories(List<ExpenseCategory> categories) { this.categories = categories; }
+
+    public List<Currency> getCurrencies() { return currencies; }
+    public void setCurrencies(List<Currency> currencies) { this.currencies = currencies; }
+
+    public EntryColumns getEntries() { return entries; }
+    public void setEntries(EntryColumns entries) { this.entries = entries; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
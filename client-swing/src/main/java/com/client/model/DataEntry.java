@@ -10,6 +10,7 @@ public class DataEntry {
     private String note;
     private int amount;
     private String paymentType;
+    private Long version; // server change version of the last write, used by sync
     private static int tempIdCounter = -1; // for generating temporary IDs for new entries and adding them to UI before backend assigns real IDs
 
     // Jackson ObjectMapper requires a default constructor
@@ -99,4 +100,12 @@ public class DataEntry {
     public void setPaymentType(String paymentType) { 
         this.paymentType = paymentType; 
     }
+
+    public Long getVersion() { 
+        return version; 
+    }
+
+    public void setVersion(Long version) { 
+        this.version = version; 
+    }
 }
@@ -0,0 +1,95 @@
+package com.client.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// the server's columnar form of a list of entries: one array per field, entry i is the i-th value of each
+// type, category and payment type are indexes into small lists of distinct values, and there is no username,
+// the list always belongs to the user who asked for it
+// dates are days since 1970-01-01, note i is notes from noteEnds[i-1] (0 for the first) up to noteEnds[i]
+public class EntryColumns {
+    public static final int NO_DATE = Integer.MIN_VALUE;
+    public static final int NO_CODE = -1;
+
+    private int count;
+    private List<String> ids = new ArrayList<>();
+    private long[] versions = new long[0];
+    private int[] dates = new int[0];
+    private int[] amounts = new int[0];
+    private String notes = "";
+    private int[] noteEnds = new int[0];
+    private List<String> types = new ArrayList<>();
+    private int[] typeCodes = new int[0];
+    private List<String> categories = new ArrayList<>();
+    private int[] categoryCodes = new int[0];
+    private List<String> paymentTypes = new ArrayList<>();
+    private int[] paymentTypeCodes = new int[0];
+
+    public EntryColumns() {}
+
+    // back to one DataEntry per row, dictionary strings are shared between the entries that use them
+    public List<DataEntry> toEntries(String username) {
+        List<DataEntry> entries = new ArrayList<>(count);
+        int noteStart = 0;
+        for (int i = 0; i < count; i++) {
+            DataEntry e = new DataEntry();
+            e.setId(ids.get(i));
+            e.setUsername(username);
+            e.setVersion(versions[i] == 0 ? null : versions[i]);
+            e.setDate(dates[i] == NO_DATE ? null : LocalDate.ofEpochDay(dates[i]).toString());
+            e.setAmount(amounts[i]);
+            e.setNote(notes.substring(noteStart, noteEnds[i]));
+            noteStart = noteEnds[i];
+            e.setType(lookup(types, typeCodes[i]));
+            e.setCategory(lookup(categories, categoryCodes[i]));
+            e.setPaymentType(lookup(paymentTypes, paymentTypeCodes[i]));
+            entries.add(e);
+        }
+        return entries;
+    }
+
+    private static String lookup(List<String> dictionary, int code) {
+        return code == NO_CODE ? null : dictionary.get(code);
+    }
+
+    // Getters and Setters, used by jackson
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+
+    public List<String> getIds() { return ids; }
+    public void setIds(List<String> ids) { this.ids = ids; }
+
+    public long[] getVersions() { return versions; }
+    public void setVersions(long[] versions) { this.versions = versions; }
+
+    public int[] getDates() { return dates; }
+    public void setDates(int[] dates) { this.dates = dates; }
+
+    public int[] getAmounts() { return amounts; }
+    public void setAmounts(int[] amounts) { this.amounts = amounts; }
+
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+
+    public int[] getNoteEnds() { return noteEnds; }
+    public void setNoteEnds(int[] noteEnds) { this.noteEnds = noteEnds; }
+
+    public List<String> getTypes() { return types; }
+    public void setTypes(List<String> types) { this.types = types; }
+
+    public int[] getTypeCodes() { return typeCodes; }
+    public void setTypeCodes(int[] typeCodes) { this.typeCodes = typeCodes; }
+
+    public List<String> getCategories() { return categories; }
+    public void setCategories(List<String> categories) { this.categories = categories; }
+
+    public int[] getCategoryCodes() { return categoryCodes; }
+    public void setCategoryCodes(int[] categoryCodes) { this.categoryCodes = categoryCodes; }
+
+    public List<String> getPaymentTypes() { return paymentTypes; }
+    public void setPaymentTypes(List<String> paymentTypes) { this.paymentTypes = paymentTypes; }
+
+    public int[] getPaymentTypeCodes() { return paymentTypeCodes; }
+    public void setPaymentTypeCodes(int[] paymentTypeCodes) { this.paymentTypeCodes = paymentTypeCodes; }
+}
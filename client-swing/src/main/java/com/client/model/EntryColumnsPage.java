@@ -0,0 +1,16 @@
+package com.client.model;
+
+// one page of the paginated entries endpoint in the columnar format
+// nextCursor is null on the last page, otherwise it is sent back as cursor to get the next one
+public class EntryColumnsPage {
+    private EntryColumns entries = new EntryColumns();
+    private String nextCursor;
+
+    public EntryColumnsPage() {}
+
+    public EntryColumns getEntries() { return entries; }
+    public void setEntries(EntryColumns entries) { this.entries = entries; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
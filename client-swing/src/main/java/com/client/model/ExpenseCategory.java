@@ -6,6 +6,7 @@ public class ExpenseCategory {
     private String name;
     private String icon;
     private String username;
+    private Long version; // server change version of the last write, used by sync
 
     public ExpenseCategory() {}
 
@@ -40,4 +41,12 @@ public class ExpenseCategory {
     public void setUsername(String username) { 
         this.username = username; 
     }
+
+    public Long getVersion() { 
+        return version; 
+    }
+
+    public void setVersion(Long version) { 
+        this.version = version; 
+    }
 }
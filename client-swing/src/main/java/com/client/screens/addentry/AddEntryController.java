@@ -3,9 +3,13 @@ package com.client.screens.addentry;
 import java.awt.Color;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 
 import javax.swing.SwingUtilities;
 
+import org.json.JSONArray;
+import org.json.JSONObject;
+
 import com.client.components.addentry.AddEntryForm;
 import com.client.constants.Constants;
 import com.client.core.AppState;
@@ -13,6 +17,7 @@ import com.client.core.BasePanel;
 import com.client.core.ScreenManager;
 import com.client.model.DataEntry;
 import com.client.screens.dashboard.DashboardScreen;
+import com.client.utils.HttpClient;
 
 public class AddEntryController {
 
@@ -78,7 +83,7 @@ public class AddEntryController {
                 username, type, dateStr, category, note, amount, paymentType
         );
 
-        new Thread(() -> submitToBackend(username, type, dateStr, category, note, amount, paymentType, json)).start();
+        submitToBackend(username, type, dateStr, category, note, amount, paymentType, json);
     }
 
     private void submitToBackend(
@@ -91,93 +96,93 @@ public class AddEntryController {
             String paymentType,
             String json
     ) {
-        try {
-            boolean isEdit = (editingEntry != null);
-            String urlStr;
-
-            if (isEdit) {
-                urlStr = Constants.BASE_URL + "/api/data-entries/" + editingEntry.getId();
-            } else {
-                urlStr = Constants.BASE_URL + "/api/data-entries";
-            }
-
-            java.net.URL url = new java.net.URL(urlStr);
-            java.net.HttpURLConnection conn = (java.net.HttpURLConnection) url.openConnection();
-
-            conn.setRequestMethod(isEdit ? "PUT" : "POST");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setDoOutput(true);
-
-            String token = AppState.getInstance().getJwtToken();
-            if (token != null && !token.isEmpty()) {
-                conn.setRequestProperty("Authorization", "Bearer " + token);
-            }
-
-            try (java.io.OutputStream os = conn.getOutputStream()) {
-                os.write(json.getBytes());
-            }
-
-            int code = conn.getResponseCode();
-            if (code == 200) {
-                if (isEdit) {
-                    // update existing entry in AppState
-                    editingEntry.setType(type);
-                    editingEntry.setDate(dateStr);
-                    editingEntry.setCategory(category);
-                    editingEntry.setPaymentType(paymentType);
-                    editingEntry.setNote(note);
-                    editingEntry.setAmount(amount);
-                } else {
-                    // create new entry in AppState
-                    DataEntry newEntry = new DataEntry(username, type, dateStr, category, note, amount, paymentType);
-                    AppState.getInstance().addEntry(newEntry);
+        boolean isEdit = (editingEntry != null);
+
+        // a new entry goes through the batch endpoint, the only one that answers with the id the server gave it
+        // with that id the entry can be edited and deleted right away, and the login sync knows it when it sees it
+        CompletableFuture<String> request = isEdit
+                ? HttpClient.putAsync(Constants.BASE_URL + "/api/data-entries/" + editingEntry.getId(), json)
+                : HttpClient.postAsync(Constants.BASE_URL + "/api/data-entries/batch", "[{\"op\":\"create\",\"entry\":" + json + "}]");
+
+        request.whenComplete((res, error) -> {
+            if (error == null) {
+                String id = isEdit ? null : createdId(res);
+                if (!isEdit && id == null) {
+                    SwingUtilities.invokeLater(() -> {
+                        form.getStatusLabel().setForeground(Color.RED);
+                        form.getStatusLabel().setText("Entry was not saved.");
+                    });
+                    return;
                 }
-
-                SwingUtilities.invokeLater(() -> ScreenManager.show(new DashboardScreen()));
-            } else {
+                // AppState is only changed on the EDT, the screens read it there
                 SwingUtilities.invokeLater(() -> {
-                    form.getStatusLabel().setForeground(Color.RED);
-                    form.getStatusLabel().setText("Server error: " + code);
+                    if (isEdit) {
+                        // update existing entry in AppState
+                        editingEntry.setType(type);
+                        editingEntry.setDate(dateStr);
+                        editingEntry.setCategory(category);
+                        editingEntry.setPaymentType(paymentType);
+                        editingEntry.setNote(note);
+                        editingEntry.setAmount(amount);
+                        AppState.getInstance().updateEntry(editingEntry);
+                    } else {
+                        // create new entry in AppState
+                        DataEntry newEntry = new DataEntry(username, type, dateStr, category, note, amount, paymentType);
+                        newEntry.setId(id);
+                        AppState.getInstance().addEntry(newEntry);
+                    }
+
+                    ScreenManager.show(new DashboardScreen());
                 });
+            } else if (error.getCause() instanceof HttpClient.HttpException http) {
+                if (http.getStatus() != 401) {
+                    SwingUtilities.invokeLater(() -> {
+                        form.getStatusLabel().setForeground(Color.RED);
+                        form.getStatusLabel().setText("Server error: " + http.getStatus());
+                    });
+                }
+            } else {
+                error.printStackTrace();
+                SwingUtilities.invokeLater(() -> form.getStatusLabel().setText("Connection error."));
             }
+        });
+    }
 
-            conn.disconnect();
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            SwingUtilities.invokeLater(() -> form.getStatusLabel().setText("Connection error."));
+    // id of the entry created by a one operation batch, null if the server did not create it
+    private static String createdId(String response) {
+        try {
+            JSONObject result = new JSONArray(response).getJSONObject(0);
+            return "OK".equals(result.optString("status")) ? result.optString("id", null) : null;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
         }
     }
 
     private void deleteEntryAsync() {
-        new Thread(() -> {
-            try {
-                String token = AppState.getInstance().getJwtToken();
-                if (token == null || token.isEmpty()) {
-                    System.out.println(">>> No JWT, cannot delete");
-                    return;
-                }
-
-                String url = Constants.BASE_URL + "/api/data-entries/" + editingEntry.getId();
-
-                java.net.URL u = new java.net.URL(url);
-                java.net.HttpURLConnection conn = (java.net.HttpURLConnection) u.openConnection();
-
-                conn.setRequestMethod("DELETE");
-                conn.setRequestProperty("Authorization", "Bearer " + token);
+        String token = AppState.getInstance().getJwtToken();
+        if (token == null || token.isEmpty()) {
+            System.out.println(">>> No JWT, cannot delete");
+            return;
+        }
 
-                int code = conn.getResponseCode();
-                if (code == 200 || code == 204) {
-                    AppState.getInstance().getEntries().remove(editingEntry);
+        String url = Constants.BASE_URL + "/api/data-entries/" + editingEntry.getId();
 
-                    SwingUtilities.invokeLater(() -> ScreenManager.show(new DashboardScreen()));
-                } else {
+        HttpClient.deleteAsync(url).whenComplete((res, error) -> {
+            if (error == null) {
+                SwingUtilities.invokeLater(() -> {
+                    AppState.getInstance().deleteEntry(editingEntry.getId());
+                    ScreenManager.show(new DashboardScreen());
+                });
+            } else if (error.getCause() instanceof HttpClient.HttpException http) {
+                if (http.getStatus() != 401) {
                     SwingUtilities.invokeLater(() -> form.getStatusLabel()
-                            .setText("Failed to delete. Server code: " + code));
+                            .setText("Failed to delete. Server code: " + http.getStatus()));
                 }
-            } catch (Exception ex) {
-                ex.printStackTrace();
+            } else {
+                error.printStackTrace();
                 SwingUtilities.invokeLater(() -> form.getStatusLabel().setText("Delete error."));
             }
-        }).start();
+        });
     }
 }
@@ -22,77 +22,66 @@ public class CategoriesController {
 
     // Load from backend
     public void loadCategoriesAsync() {
-        new Thread(() -> {
-            try {
-                String username = AppState.getInstance().getUsername();
-                String url = BASE_URL + "/" + username;
-
-                String json = HttpClient.get(url);
-                if (json == null) return;
-
-                List<ExpenseCategory> list = HttpClient.fromJsonList(json, ExpenseCategory.class);
-
-                SwingUtilities.invokeLater(() -> {
-                    scr.categories.clear();
-                    scr.categories.addAll(list);
-
-                    AppState.getInstance().setCategories(new ArrayList<>(scr.categories));
-                    scr.refreshCategoryList();
-                });
-
-            } catch (Exception ex) {
-                ex.printStackTrace();
-            }
-        }).start();
+        String username = AppState.getInstance().getUsername();
+        String url = BASE_URL + "/" + username;
+
+        HttpClient.getAsync(url).thenAccept(json -> {
+            List<ExpenseCategory> list = HttpClient.fromJsonList(json, ExpenseCategory.class);
+            if (list == null) return;
+
+            SwingUtilities.invokeLater(() -> {
+                scr.categories.clear();
+                scr.categories.addAll(list);
+
+                AppState.getInstance().setCategories(new ArrayList<>(scr.categories));
+                scr.refreshCategoryList();
+            });
+        }).exceptionally(ex -> {
+            ex.printStackTrace();
+            return null;
+        });
     }
 
     // Create Category
     public void createCategoryAsync(String name, String icon, String username) {
-        new Thread(() -> {
-            try {
-                String body = """
-                    {"name":"%s","icon":"%s","username":"%s"}
-                    """.formatted(escape(name), escape(icon), escape(username));
-
-                String res = HttpClient.post(BASE_URL, body);
-
-                if ("OK".equalsIgnoreCase(res)) {
-                    loadCategoriesAsync();
-                } else {
-                    SwingUtilities.invokeLater(() ->
-                        CategoryDialogs.showError(scr, "Category already exists.")
-                    );
-                }
-
-            } catch (Exception ex) { ex.printStackTrace(); }
-        }).start();
+        String body = """
+            {"name":"%s","icon":"%s","username":"%s"}
+            """.formatted(escape(name), escape(icon), escape(username));
+
+        HttpClient.postAsync(BASE_URL, body).handle((res, error) -> {
+            if ("OK".equalsIgnoreCase(res)) {
+                loadCategoriesAsync();
+            } else {
+                SwingUtilities.invokeLater(() ->
+                    CategoryDialogs.showError(scr, "Category already exists.")
+                );
+            }
+            return null;
+        });
     }
 
     // Update Category
     public void updateCategoryAsync(ExpenseCategory cat) {
-        new Thread(() -> {
-            try {
-                String username = AppState.getInstance().getUsername();
-
-                String body = """
-                    {"name":"%s","icon":"%s","username":"%s"}
-                    """.formatted(
-                        escape(cat.getName()),
-                        escape(cat.getIcon()),
-                        escape(username)
+        String username = AppState.getInstance().getUsername();
+
+        String body = """
+            {"name":"%s","icon":"%s","username":"%s"}
+            """.formatted(
+                escape(cat.getName()),
+                escape(cat.getIcon()),
+                escape(username)
+        );
+
+        HttpClient.putAsync(BASE_URL + "/" + cat.getId(), body).handle((res, error) -> {
+            if ("OK".equalsIgnoreCase(res)) {
+                loadCategoriesAsync();
+            } else {
+                SwingUtilities.invokeLater(() ->
+                    CategoryDialogs.showError(scr, "Update failed.")
                 );
-
-                String res = HttpClient.put(BASE_URL + "/" + cat.getId(), body);
-
-                if ("OK".equalsIgnoreCase(res)) {
-                    loadCategoriesAsync();
-                } else {
-                    SwingUtilities.invokeLater(() ->
-                        CategoryDialogs.showError(scr, "Update failed.")
-                    );
-                }
-            } catch (Exception ex) { ex.printStackTrace(); }
-        }).start();
+            }
+            return null;
+        });
     }
 
     private String escape(String s) { return s.replace("\"", "\\\""); }
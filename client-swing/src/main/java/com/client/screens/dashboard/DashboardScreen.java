@@ -10,10 +10,8 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
 
 import javax.swing.Box;
 import javax.swing.BoxLayout;
@@ -54,7 +52,6 @@ public class DashboardScreen extends BasePanel {
 
     private LocalDate currentDate = LocalDate.now();
     private static final DateTimeFormatter MONTH_FMT = DateTimeFormatter.ofPattern("MMM yyyy");
-    private static final DateTimeFormatter DATE_IN  = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter DATE_OUT = DateTimeFormatter.ofPattern("EEE, MMM d, yyyy");
 
     public DashboardScreen() {
@@ -213,29 +210,20 @@ public class DashboardScreen extends BasePanel {
         bottomNavigationBar.doLayout();
     }
 
-    private void refreshList() {
+    // rebuild the list from AppState, called again when the login sync delivers the full history
+    public void refreshList() {
         listPanel.removeAll();
 
-        List<DataEntry> entries = AppState.getInstance().getEntries();
-        if (entries == null) entries = Collections.emptyList();
-
         YearMonth selected = YearMonth.from(currentDate);
         int selectedYear = (int) yearDropdown.getSelectedItem();
         currentDate = YearMonth.of(selectedYear, currentDate.getMonth()).atDay(1);
 
         monthLabel.setText(selected.format(MONTH_FMT));
 
-        // Filter by month
-        List<DataEntry> filtered = new ArrayList<>();
-        for (DataEntry e : entries) {
-            if (e == null || e.getDate() == null) continue;
-            try {
-                LocalDate d = LocalDate.parse(e.getDate(), DATE_IN);
-                if (YearMonth.from(d).equals(selected)) filtered.add(e);
-            } catch (Exception ignored) {}
-        }
+        // AppState keeps the entries filed by month, with each day's totals, so this is a lookup
+        Collection<DayGroup> days = AppState.getInstance().getMonth(selected);
 
-        if (filtered.isEmpty()) {
+        if (days.isEmpty()) {
             JLabel lbl = new JLabel("No transactions for this month.");
             lbl.setFont(UIFonts.TEXT);
             lbl.setForeground(Color.WHITE);
@@ -249,23 +237,7 @@ public class DashboardScreen extends BasePanel {
             return;
         }
 
-        Map<LocalDate, DayGroup> map = new TreeMap<>(Collections.reverseOrder());
-
-        for (DataEntry e : filtered) {
-            try {
-                LocalDate d = LocalDate.parse(e.getDate(), DATE_IN);
-                DayGroup g = map.computeIfAbsent(d, k -> new DayGroup(k));
-
-                if ("Income".equalsIgnoreCase(e.getType()))
-                    g.totalIncome += e.getAmount();
-                else
-                    g.totalExpense += e.getAmount();
-
-                g.entries.add(e);
-            } catch (Exception ignored) {}
-        }
-
-        for (DayGroup g : map.values()) {
+        for (DayGroup g : days) {
             listPanel.add(DashboardRowFactory.createDayHeaderRow(g));
             for (DataEntry e : g.entries) {
                 listPanel.add(DashboardRowFactory.createTransactionRow(e));
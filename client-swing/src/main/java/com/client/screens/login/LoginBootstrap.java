@@ -0,0 +1,209 @@
+package com.client.screens.login;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import javax.swing.SwingUtilities;
+
+import org.json.JSONObject;
+
+import com.client.constants.Constants;
+import com.client.core.AppState;
+import com.client.core.ScreenManager;
+import com.client.core.SyncCache;
+import com.client.model.Bootstrap;
+import com.client.model.Currency;
+import com.client.model.DataEntry;
+import com.client.model.EntryColumnsPage;
+import com.client.screens.dashboard.DashboardScreen;
+import com.client.utils.HttpClient;
+
+// everything between pressing login and a usable dashboard, none of it on the EDT
+// once the token is in, these go out side by side:
+//   - GET /api/bootstrap with this month's entries, the user's categories and the currencies, then the month's
+//     remaining pages one after the other
+//   - the sync of the full history against the local cache (SyncCache)
+// the dashboard opens as soon as this month and the categories are in, the full history takes the place of
+// the month's entries when the sync is done and the dashboard redraws with it
+// the dashboard accepts edits before that, so what was added, edited or deleted meanwhile is applied on top of
+// the history by id (AppState.trackChanges), whether the sync saw those changes on the server or not
+// every callback that touches AppState or swing is moved onto the EDT first
+public class LoginBootstrap {
+
+    private static final int PAGE_SIZE = 500; // the server's largest page
+
+    // the one currency download of Main's preload, logins take the currencies from the bootstrap call
+    // when it has not finished
+    private static CompletableFuture<Void> currencies;
+
+    private final LoginScreen scr;
+    private final String username;
+
+    // only read and written on the EDT
+    private boolean dashboardShown;
+    private boolean historyLoaded;
+
+    public LoginBootstrap(LoginScreen scr, String username) {
+        this.scr = scr;
+        this.username = username;
+    }
+
+    // download the currencies unless they are already in or on their way
+    public static synchronized CompletableFuture<Void> loadCurrencies() {
+        if (currencies == null || currencies.isCompletedExceptionally()
+                || currencies.isDone() && AppState.getInstance().getCurrencies().isEmpty()) {
+            currencies = HttpClient.getAsync(Constants.BASE_URL + "/currency").thenAccept(json -> {
+                // parse list of currencies
+                List<Currency> list = HttpClient.fromJsonList(json, Currency.class);
+                if (list != null) {
+                    // store it in state management throught the app
+                    AppState.getInstance().setCurrencies(list);
+                }
+            });
+        }
+        return currencies;
+    }
+
+    // called on the EDT
+    public void start(String password) {
+        scr.loginBtn.setEnabled(false);
+        scr.status.setText("Signing in...");
+
+        // ----------------------
+        // SEND LOGIN REQUEST
+        // ----------------------
+        HttpClient.postAsync(
+                Constants.BASE_URL + "/auth/login",
+                "{\"username\":\"" + username + "\", \"password\":\"" + password + "\"}"
+        ).handle((response, error) -> {
+            SwingUtilities.invokeLater(() -> {
+                if (error != null) {
+                    fail("Login failed. Could not reach server.");
+                    return;
+                }
+                try {
+                    JSONObject obj = new JSONObject(response);
+                    if (!obj.getBoolean("success")) {
+                        fail("Invalid username or password.");
+                        return;
+                    }
+                    // GET JWT
+                    loggedIn(obj.getString("token"));
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                    fail("Error parsing login response.");
+                }
+            });
+            return null;
+        });
+    }
+
+    private void loggedIn(String token) {
+        AppState.getInstance().setUsername(username);
+        AppState.getInstance().setJwtToken(token);
+        scr.status.setText("Loading this month...");
+
+        // this month's entries, the categories and the currencies in one call, later pages of the month one by one
+        // a failure opens the dashboard with nothing, the sync below fills it in if it gets through
+        YearMonth month = YearMonth.now();
+        String url = Constants.BASE_URL + "/api/bootstrap?from=" + month.atDay(1) + "&to=" + month.atEndOfMonth();
+        HttpClient.getColumnsAsync(url, Bootstrap.class)
+            .thenCompose(data -> {
+                List<DataEntry> entries = new ArrayList<>(data.getEntries().toEntries(username));
+                CompletableFuture<List<DataEntry>> all = data.getNextCursor() == null
+                    ? CompletableFuture.completedFuture(entries)
+                    : loadMonth(month, data.getNextCursor(), entries);
+                return all.thenAccept(complete -> SwingUtilities.invokeLater(() -> monthLoaded(complete, data)));
+            })
+            .exceptionally(e -> {
+                e.printStackTrace();
+                SwingUtilities.invokeLater(() -> monthLoaded(null, null));
+                return null;
+            });
+
+        // only what changed since the last login is downloaded, the rest comes from the local cache
+        AppState.getInstance().trackChanges();
+        SyncCache.syncAsync(username).thenAccept(snapshot ->
+            SwingUtilities.invokeLater(() -> historyLoaded(snapshot))
+        );
+    }
+
+    // follows nextCursor until the month is complete
+    private CompletableFuture<List<DataEntry>> loadMonth(YearMonth month, String cursor, List<DataEntry> into) {
+        String url = Constants.BASE_URL + "/api/data-entries/user/" + username
+            + "?from=" + month.atDay(1) + "&to=" + month.atEndOfMonth() + "&limit=" + PAGE_SIZE;
+        if (cursor != null) {
+            url += "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8);
+        }
+
+        return HttpClient.getColumnsAsync(url, EntryColumnsPage.class).thenCompose(page -> {
+            into.addAll(page.getEntries().toEntries(username));
+            return page.getNextCursor() == null
+                ? CompletableFuture.completedFuture(into)
+                : loadMonth(month, page.getNextCursor(), into);
+        });
+    }
+
+    private void monthLoaded(List<DataEntry> entries, Bootstrap data) {
+        if (data != null && AppState.getInstance().getCurrencies().isEmpty()) {
+            AppState.getInstance().setCurrencies(data.getCurrencies());
+        }
+        if (dashboardShown) {
+            return; // the full history got there first
+        }
+        AppState.getInstance().setEntries(entries == null ? new ArrayList<>() : entries);
+        if (data != null) {
+            AppState.getInstance().setCategories(data.getCategories());
+        }
+        showDashboard();
+    }
+
+    private void historyLoaded(SyncCache.Snapshot snapshot) {
+        if (historyLoaded || !username.equals(AppState.getInstance().getUsername())) {
+            return; // logged out meanwhile
+        }
+        historyLoaded = true;
+
+        Map<String, DataEntry> changes = AppState.getInstance().takeChanges();
+        if (snapshot == null) {
+            return; // the month's entries stay, as they are all the dashboard had before
+        }
+
+        // the history by id, with this client's changes since the sync started on top
+        Map<String, DataEntry> entries = new LinkedHashMap<>();
+        for (DataEntry e : snapshot.getEntries()) {
+            entries.put(e.getId(), e);
+        }
+        changes.forEach((id, e) -> {
+            if (e == null) {
+                entries.remove(id);
+            } else {
+                entries.put(id, e);
+            }
+        });
+        AppState.getInstance().setEntries(new ArrayList<>(entries.values()));
+        AppState.getInstance().setCategories(snapshot.getCategories());
+
+        if (!dashboardShown) {
+            showDashboard();
+        } else if (ScreenManager.current() instanceof DashboardScreen dashboard) {
+            dashboard.refreshList();
+        }
+    }
+
+    private void showDashboard() {
+        dashboardShown = true;
+        ScreenManager.show(new DashboardScreen());
+    }
+
+    private void fail(String message) {
+        scr.loginBtn.setEnabled(true);
+        scr.status.setText(message);
+    }
+}
@@ -58,37 +58,34 @@ public class SettingsController {
     }
 
     private void deleteAccountAsync() {
-        new Thread(() -> {
-            try {
-                String username = AppState.getInstance().getUsername();
-                String result = HttpClient.delete(Constants.BASE_URL + "/auth/" + username);
-
-                if ("OK".equals(result)) {
-                    javax.swing.SwingUtilities.invokeLater(() -> {
-                        JOptionPane.showMessageDialog(
-                            scr,
-                            "Your account has been deleted.",
-                            "Deleted",
-                            JOptionPane.INFORMATION_MESSAGE
-                        );
-
-                        AppState.getInstance().reset();
-                        ScreenManager.show(new LoginScreen());
-                    });
-                } else {
-                    javax.swing.SwingUtilities.invokeLater(() ->
-                        JOptionPane.showMessageDialog(
-                            scr,
-                            "Failed to delete account. Try again later.",
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE
-                        )
+        String username = AppState.getInstance().getUsername();
+        HttpClient.deleteAsync(Constants.BASE_URL + "/auth/" + username).handle((result, error) -> {
+            if ("OK".equals(result)) {
+                javax.swing.SwingUtilities.invokeLater(() -> {
+                    JOptionPane.showMessageDialog(
+                        scr,
+                        "Your account has been deleted.",
+                        "Deleted",
+                        JOptionPane.INFORMATION_MESSAGE
                     );
-                }
 
-            } catch (Exception ex) {
-                ex.printStackTrace();
+                    AppState.getInstance().reset();
+                    ScreenManager.show(new LoginScreen());
+                });
+            } else {
+                if (error != null) {
+                    error.printStackTrace();
+                }
+                javax.swing.SwingUtilities.invokeLater(() ->
+                    JOptionPane.showMessageDialog(
+                        scr,
+                        "Failed to delete account. Try again later.",
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE
+                    )
+                );
             }
-        }).start();
+            return null;
+        });
     }
 }
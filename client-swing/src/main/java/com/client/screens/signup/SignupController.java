@@ -1,5 +1,7 @@
 package com.client.screens.signup;
 
+import javax.swing.SwingUtilities;
+
 import com.client.constants.Constants;
 import com.client.constants.UIColors;
 import com.client.core.ScreenManager;
@@ -62,8 +64,17 @@ public class SignupController {
             }
             """.formatted(first, last, user, email, pass);
 
-        String response = HttpClient.post(Constants.BASE_URL + "/auth/register", body);
+        scr.signupBtn.setEnabled(false);
+        HttpClient.postAsync(Constants.BASE_URL + "/auth/register", body).handle((response, error) -> {
+            SwingUtilities.invokeLater(() -> {
+                scr.signupBtn.setEnabled(true);
+                showResult(scr, response);
+            });
+            return null;
+        });
+    }
 
+    private void showResult(SignupScreen scr, String response) {
         if (response == null) {
             scr.status.setText("Signup failed.");
             return;
@@ -15,7 +15,6 @@ import javax.swing.JToggleButton;
 import com.client.components.BottomNavigationBar;
 import com.client.components.stats.LegendBuilder;
 import com.client.components.stats.PieChartPanel;
-import com.client.components.stats.StatsAggregator;
 import com.client.components.stats.StatsLayout;
 import com.client.components.stats.StatsViewRefresher;
 import com.client.components.timeseries.TimeSeriesChartPanel;
@@ -60,9 +59,8 @@ public class StatsScreen extends BasePanel {
 
         this.state = new StatsState();
 
-        StatsAggregator aggregator = new StatsAggregator();
         LegendBuilder legendBuilder = new LegendBuilder();
-        this.refresher = new StatsViewRefresher(this, state, aggregator, legendBuilder);
+        this.refresher = new StatsViewRefresher(this, state, legendBuilder);
 
         StatsUIBuilder uiBuilder = new StatsUIBuilder();
         uiBuilder.build(this, state);
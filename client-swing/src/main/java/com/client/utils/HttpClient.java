@@ -1,11 +1,22 @@
 package com.client.utils;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
@@ -13,123 +24,224 @@ import javax.swing.SwingUtilities;
 import com.client.core.AppState;
 import com.client.core.ScreenManager;
 import com.client.screens.login.LoginScreen;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+// the one transport of the client, every call to the server goes through here
+// one java.net.http.HttpClient is shared by the whole app: it keeps connections alive and reuses them, speaks HTTP/2
+// when the server does and falls back to HTTP/1.1 otherwise; responses are asked for gzipped and unzipped here
+//
+// getAsync / postAsync / putAsync / deleteAsync return at once, their futures complete on the client's own threads,
+// so anything touching swing still has to go through SwingUtilities.invokeLater
+// get / post / put / delete are the blocking versions for code that already runs off the EDT,
+// they return null where the futures fail
 public class HttpClient {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
-    // GET Request (auto adds JWT except /auth/*)
-    public static String get(String urlStr) {
-        try {
-            URL url = new URL(urlStr);
-            HttpURLConnection con = (HttpURLConnection) url.openConnection();
+    // the server's columnar entries format in its smile encoding, see model/EntryColumns
+    public static final String ENTRY_COLUMNS_TYPE = "application/vnd.moneymanager.entries+smile";
+    private static final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory())
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
-            con.setRequestMethod("GET");
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
 
-            // 🔥 Add JWT unless this is an auth endpoint
-            if (!urlStr.contains("/auth/")) {
-                String token = AppState.getInstance().getJwtToken();
-                if (token != null && !token.isEmpty()) {
-                    con.setRequestProperty("Authorization", "Bearer " + token);
-                }
-            }
+    private static final java.net.http.HttpClient transport = java.net.http.HttpClient.newBuilder()
+        .version(java.net.http.HttpClient.Version.HTTP_2)
+        .connectTimeout(CONNECT_TIMEOUT)
+        .followRedirects(java.net.http.HttpClient.Redirect.NORMAL)
+        .build();
 
-            return read(con);
+    // a failed call: status is the HTTP status, or -1 when no response came back
+    public static class HttpException extends IOException {
+        private final int status;
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
+        public HttpException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        public int getStatus() {
+            return status;
         }
     }
 
-    // POST Request (auto adds JWT except /auth/*)
-    public static String post(String urlStr, String json) {
-        try {
-            URL url = new URL(urlStr);
-            HttpURLConnection con = (HttpURLConnection) url.openConnection();
-
-            con.setRequestMethod("POST");
-            con.setRequestProperty("Content-Type", "application/json");
-            con.setDoOutput(true);
-
-            // 🔥 Add JWT unless /auth/*
-            if (!urlStr.contains("/auth/")) {
-                String token = AppState.getInstance().getJwtToken();
-                if (token != null && !token.isEmpty()) {
-                    con.setRequestProperty("Authorization", "Bearer " + token);
-                }
-            }
+    // one finished call, passed to the timing listeners
+    // status is -1 when no response came back, bytes is the size of the body as it came over the wire
+    public record Timing(String method, URI uri, int status, long bytes, Duration elapsed) {}
 
-            try (OutputStream os = con.getOutputStream()) {
-                os.write(json.getBytes());
-            }
+    private static final List<Consumer<Timing>> timingListeners = new CopyOnWriteArrayList<>();
 
-            return read(con);
+    // called after every request, on the thread that completed it, keep it short
+    public static void addTimingListener(Consumer<Timing> listener) {
+        timingListeners.add(listener);
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
+    public static void removeTimingListener(Consumer<Timing> listener) {
+        timingListeners.remove(listener);
+    }
+
+    // GET responses that came with an ETag, keyed by url
+    // the ETag is sent back as If-None-Match and on 304 the stored body is returned without downloading it again
+    private record CachedResponse(String etag, byte[] body) {}
+
+    private static final int MAX_CACHED_RESPONSES = 64;
+    private static final Map<String, CachedResponse> responseCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+            return size() > MAX_CACHED_RESPONSES;
         }
+    };
+
+    // GET Request (auto adds JWT except login / register)
+    public static CompletableFuture<String> getAsync(String urlStr) {
+        return fetch(urlStr, null).thenApply(HttpClient::text);
+    }
+
+    // GET a response in the columnar entries format and decode it into the given class
+    // the url decides the shape: a plain entries list is an EntryColumns, the sync and page responses hold one
+    public static <T> CompletableFuture<T> getColumnsAsync(String urlStr, Class<T> clazz) {
+        return fetch(urlStr, ENTRY_COLUMNS_TYPE).thenApply(body -> {
+            try {
+                return smileMapper.readValue(body, clazz);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    // POST Request (auto adds JWT except login / register)
+    public static CompletableFuture<String> postAsync(String urlStr, String json) {
+        return send(request(urlStr).header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json, StandardCharsets.UTF_8))).thenApply(HttpClient::text);
     }
 
     // PUT Request (auto adds JWT)
-    public static String put(String urlStr, String json) {
-        try {
-            URL url = new URL(urlStr);
-            HttpURLConnection con = (HttpURLConnection) url.openConnection();
+    public static CompletableFuture<String> putAsync(String urlStr, String json) {
+        return send(request(urlStr).header("Content-Type", "application/json")
+            .PUT(HttpRequest.BodyPublishers.ofString(json, StandardCharsets.UTF_8))).thenApply(HttpClient::text);
+    }
 
-            con.setRequestMethod("PUT");
-            con.setRequestProperty("Content-Type", "application/json");
-            con.setDoOutput(true);
+    // DELETE Request (auto adds JWT), "OK" for any 2xx without a body
+    public static CompletableFuture<String> deleteAsync(String urlStr) {
+        return send(request(urlStr).DELETE()).thenApply(body -> body.length == 0 ? "OK" : text(body));
+    }
 
-            // 🔥 Always add JWT (PUT is never used for auth)
-            String token = AppState.getInstance().getJwtToken();
-            if (token != null && !token.isEmpty()) {
-                con.setRequestProperty("Authorization", "Bearer " + token);
-            }
+    public static String get(String urlStr) {
+        return await(getAsync(urlStr));
+    }
 
-            try (OutputStream os = con.getOutputStream()) {
-                os.write(json.getBytes());
-            }
+    public static <T> T getColumns(String urlStr, Class<T> clazz) {
+        return await(getColumnsAsync(urlStr, clazz));
+    }
+
+    public static String post(String urlStr, String json) {
+        return await(postAsync(urlStr, json));
+    }
 
-            return read(con);
+    public static String put(String urlStr, String json) {
+        return await(putAsync(urlStr, json));
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
+    public static String delete(String urlStr) {
+        return await(deleteAsync(urlStr));
+    }
+
+    // forget every stored GET response, called on logout so the next user never sees them
+    public static void clearCache() {
+        synchronized (responseCache) {
+            responseCache.clear();
         }
     }
 
-    // DELETE Request (auto adds JWT)
-    public static String delete(String urlStr) {
-        try {
-            URL url = new URL(urlStr);
-            HttpURLConnection con = (HttpURLConnection) url.openConnection();
+    // GET with the stored ETag, accept is only sent when given, the server answers with json then
+    private static CompletableFuture<byte[]> fetch(String urlStr, String accept) {
+        HttpRequest.Builder builder = request(urlStr).GET();
+        if (accept != null) {
+            builder.header("Accept", accept);
+        }
 
-            con.setRequestMethod("DELETE");
+        CachedResponse cached;
+        synchronized (responseCache) {
+            cached = responseCache.get(urlStr);
+        }
+        if (cached != null) {
+            builder.header("If-None-Match", cached.etag());
+        }
 
-            // 🔥 Always add JWT
-            String token = AppState.getInstance().getJwtToken();
-            if (token != null && !token.isEmpty()) {
-                con.setRequestProperty("Authorization", "Bearer " + token);
+        return exchange(builder.build()).thenApply(reply -> {
+            if (cached != null && reply.status() == 304) {
+                return cached.body();
             }
+            byte[] body = checked(reply);
 
-            int status = con.getResponseCode();
-            if (status == 200 || status == 204) return "OK";
+            reply.headers().firstValue("ETag").ifPresent(etag -> {
+                synchronized (responseCache) {
+                    responseCache.put(urlStr, new CachedResponse(etag, body));
+                }
+            });
+            return body;
+        });
+    }
 
-            return read(con);
+    private static CompletableFuture<byte[]> send(HttpRequest.Builder builder) {
+        return exchange(builder.build()).thenApply(HttpClient::checked);
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
+    // 🔥 Add JWT to everything but login and register
+    private static HttpRequest.Builder request(String urlStr) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(urlStr))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Accept-Encoding", "gzip");
+
+        String token = AppState.getInstance().getJwtToken();
+        boolean login = urlStr.endsWith("/auth/login") || urlStr.endsWith("/auth/register");
+        if (token != null && !token.isEmpty() && !login) {
+            builder.header("Authorization", "Bearer " + token);
         }
+        return builder;
     }
 
-   // GLOBAL RESPONSE HANDLER (handles 401 logout)
-    private static String read(HttpURLConnection con) throws Exception {
+    // a response with its body already unzipped
+    private record Reply(HttpRequest request, int status, HttpHeaders headers, byte[] body) {}
+
+    // sends the request, unzips the body and reports the timing, failed or not
+    private static CompletableFuture<Reply> exchange(HttpRequest request) {
+        long start = System.nanoTime();
+        return transport.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .whenComplete((response, error) -> {
+                Timing timing = new Timing(
+                    request.method(),
+                    request.uri(),
+                    response == null ? -1 : response.statusCode(),
+                    response == null ? 0 : response.body().length,
+                    Duration.ofNanos(System.nanoTime() - start)
+                );
+                for (Consumer<Timing> listener : timingListeners) {
+                    listener.accept(timing);
+                }
+            })
+            .thenApply(response -> new Reply(request, response.statusCode(), response.headers(), unzip(response)));
+    }
 
-        int status = con.getResponseCode();
+    // the JDK client does not undo the gzip it was sent
+    private static byte[] unzip(HttpResponse<byte[]> response) {
+        if (!"gzip".equalsIgnoreCase(response.headers().firstValue("Content-Encoding").orElse(""))) {
+            return response.body();
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+   // GLOBAL RESPONSE HANDLER (handles 401 logout)
+    // the body of a 2xx response, anything else fails the future with the status
+    private static byte[] checked(Reply reply) {
+        int status = reply.status();
 
         // 🔥 Global 401 handling — auto logout
         if (status == 401) {
@@ -144,19 +256,28 @@ public class HttpClient {
                 AppState.getInstance().reset();
                 ScreenManager.show(new LoginScreen());
             });
-            return null;
         }
 
-        BufferedReader br = new BufferedReader(
-                new InputStreamReader(con.getInputStream())
-        );
-        StringBuilder sb = new StringBuilder();
+        if (status / 100 != 2) {
+            throw new CompletionException(new HttpException(status, reply.request().method() + " " + reply.request().uri() + " returned " + status));
+        }
+        return reply.body();
+    }
 
-        String line;
-        while ((line = br.readLine()) != null) sb.append(line);
+    private static String text(byte[] body) {
+        return new String(body, StandardCharsets.UTF_8);
+    }
 
-        br.close();
-        return sb.toString();
+    // result of a blocking call, null if it failed; a 401 was already handled by logging out
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (!(e.getCause() instanceof HttpException http && http.getStatus() == 401)) {
+                e.printStackTrace();
+            }
+            return null;
+        }
     }
 
     // JSON → Object
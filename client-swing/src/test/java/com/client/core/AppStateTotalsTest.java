@@ -0,0 +1,172 @@
+package com.client.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.client.components.dashboard.DayGroup;
+import com.client.components.stats.StatsAggregator.AggregationResult;
+import com.client.constants.StatsScreenConstants.AggregationMode;
+import com.client.model.DataEntry;
+
+// AppState's month index and running stats totals are changed entry by entry, these random edit sequences check that
+// after every step they still hold what a recount (StatsRecount) and a fresh rebuild give
+class AppStateTotalsTest {
+
+    private static final int FIRST_YEAR = 2024;
+    private static final int YEARS = 3;
+    private static final String[] TYPES = { "Income", "income", "Expense", "Transfer", null };
+    private static final String[] CATEGORIES = { "Food", "Rent", "Salary", "Travel", null };
+
+    private final AppState state = AppState.getInstance();
+    private Random random;
+    private int nextId;
+
+    @BeforeEach
+    void resetState() {
+        state.reset();
+        state.setEntries(new ArrayList<>());
+    }
+
+    @AfterEach
+    void clearState() {
+        state.reset();
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = { 1L, 7L, 42L, 20261018L })
+    void totalsFollowEveryChange(long seed) {
+        random = new Random(seed);
+        state.setEntries(randomEntries(200));
+
+        for (int step = 0; step < 1500; step++) {
+            List<DataEntry> entries = state.getEntries();
+            int op = random.nextInt(100);
+
+            if (op < 30 || entries.isEmpty()) {
+                state.addEntry(randomEntry());
+            } else if (op < 60) {
+                // edited in place, as AddEntryController does with the entry from the list
+                DataEntry e = entries.get(random.nextInt(entries.size()));
+                randomize(e);
+                state.updateEntry(e);
+            } else if (op < 75) {
+                // a new object with the same id takes the old one's place
+                DataEntry previous = entries.get(random.nextInt(entries.size()));
+                DataEntry replacement = randomEntry();
+                replacement.setId(previous.getId());
+                state.updateEntry(replacement);
+            } else if (op < 98) {
+                state.deleteEntry(entries.get(random.nextInt(entries.size())).getId());
+            } else {
+                state.setEntries(randomEntries(random.nextInt(150)));
+            }
+
+            if (step % 25 == 0) {
+                assertMatchesRecount();
+            }
+        }
+        assertMatchesRecount();
+    }
+
+    private void assertMatchesRecount() {
+        List<DataEntry> entries = state.getEntries();
+        StatsTotals rebuiltTotals = new StatsTotals();
+        rebuiltTotals.rebuild(entries);
+        MonthIndex rebuiltIndex = new MonthIndex();
+        rebuiltIndex.rebuild(entries);
+
+        for (boolean income : new boolean[] { true, false }) {
+            assertStats(entries, rebuiltTotals, AggregationMode.TOTAL, LocalDate.of(FIRST_YEAR, 1, 1), income);
+            // one year and one month past the range, where nothing is
+            for (int year = FIRST_YEAR; year <= FIRST_YEAR + YEARS; year++) {
+                assertStats(entries, rebuiltTotals, AggregationMode.YEAR, LocalDate.of(year, 6, 15), income);
+            }
+            for (YearMonth m = YearMonth.of(FIRST_YEAR, 1); !m.isAfter(YearMonth.of(FIRST_YEAR + YEARS, 1)); m = m.plusMonths(1)) {
+                assertStats(entries, rebuiltTotals, AggregationMode.MONTH, m.atDay(1), income);
+            }
+        }
+
+        for (YearMonth m = YearMonth.of(FIRST_YEAR, 1); !m.isAfter(YearMonth.of(FIRST_YEAR + YEARS, 1)); m = m.plusMonths(1)) {
+            assertEquals(days(rebuiltIndex.getMonth(m)), days(state.getMonth(m)), "month " + m);
+        }
+    }
+
+    private void assertStats(List<DataEntry> entries, StatsTotals rebuilt, AggregationMode mode, LocalDate date, boolean income) {
+        String where = mode + " " + date + (income ? " income" : " expense");
+        Map<String, Object> running = comparable(state.getStats(mode, date, income));
+        assertEquals(comparable(StatsRecount.of(entries, mode, date, income)), running, where + " against a recount");
+        assertEquals(comparable(rebuilt.get(mode, date, income)), running, where + " against a rebuild");
+    }
+
+    // the charts sort what they show, so only the sums count, not the order of the maps
+    private static Map<String, Object> comparable(AggregationResult result) {
+        return Map.of(
+            "total", result.totalAmount,
+            "categories", new HashMap<>(result.categoryTotals),
+            "series", new HashMap<>(result.timeSeriesTotals)
+        );
+    }
+
+    // days newest first with their totals; the entries of a day as a set, an entry moved into a day goes last there
+    // while a rebuild files it in list order
+    private static List<Object> days(Collection<DayGroup> groups) {
+        List<Object> days = new ArrayList<>();
+        for (DayGroup g : groups) {
+            Map<DataEntry, Boolean> entries = new IdentityHashMap<>();
+            for (DataEntry e : g.entries) {
+                entries.put(e, true);
+            }
+            assertEquals(g.entries.size(), entries.size(), "entry filed twice on " + g.date);
+            days.add(List.of(g.date, g.totalIncome, g.totalExpense, entries.keySet().stream()
+                .map(System::identityHashCode).sorted().toList()));
+        }
+        return days;
+    }
+
+    private List<DataEntry> randomEntries(int count) {
+        List<DataEntry> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            entries.add(randomEntry());
+        }
+        return entries;
+    }
+
+    private DataEntry randomEntry() {
+        DataEntry e = new DataEntry("jane", null, null, null, "", 0, "Cash");
+        e.setId("e" + nextId++);
+        randomize(e);
+        return e;
+    }
+
+    private void randomize(DataEntry e) {
+        e.setType(TYPES[random.nextInt(TYPES.length)]);
+        e.setDate(randomDate());
+        e.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        e.setAmount(random.nextInt(20) == 0 ? 0 : random.nextInt(100_000));
+    }
+
+    // mostly a few days around month ends, sometimes missing or not a date, which every view skips
+    private String randomDate() {
+        int r = random.nextInt(40);
+        if (r == 0) return null;
+        if (r == 1) return "not a date";
+        if (r == 2) return FIRST_YEAR + "-02-30";
+        LocalDate date = LocalDate.of(FIRST_YEAR + random.nextInt(YEARS), 1 + random.nextInt(12), 1)
+            .plusDays(random.nextInt(5) - 2);
+        return date.toString();
+    }
+}
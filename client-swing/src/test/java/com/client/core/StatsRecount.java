@@ -0,0 +1,56 @@
+package com.client.core;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.client.components.stats.StatsAggregator.AggregationResult;
+import com.client.constants.StatsScreenConstants.AggregationMode;
+import com.client.model.DataEntry;
+
+// the stats of one period counted from scratch over the whole list, what the running totals must always match
+final class StatsRecount {
+
+    private StatsRecount() {
+    }
+
+    static AggregationResult of(List<DataEntry> all, AggregationMode mode, LocalDate current, boolean showIncome) {
+        Map<String, Long> categoryTotals = new LinkedHashMap<>();
+        Map<String, Long> seriesData = new LinkedHashMap<>();
+        YearMonth selectedMonth = YearMonth.from(current);
+        long total = 0;
+
+        for (DataEntry e : all) {
+            if (e == null || e.getDate() == null) continue;
+            if ("Income".equalsIgnoreCase(e.getType()) != showIncome) continue;
+
+            LocalDate d;
+            try {
+                d = LocalDate.parse(e.getDate());
+            } catch (Exception ex) {
+                continue;
+            }
+
+            boolean matches = switch (mode) {
+                case MONTH -> YearMonth.from(d).equals(selectedMonth);
+                case YEAR -> d.getYear() == current.getYear();
+                case TOTAL -> true;
+            };
+            if (!matches) continue;
+
+            String category = e.getCategory() != null ? e.getCategory() : "Other";
+            String key = switch (mode) {
+                case MONTH -> String.valueOf(d.getDayOfMonth());
+                case YEAR -> d.getMonth().name().substring(0, 3);
+                case TOTAL -> String.valueOf(d.getYear());
+            };
+            categoryTotals.merge(category, (long) e.getAmount(), Long::sum);
+            seriesData.merge(key, (long) e.getAmount(), Long::sum);
+            total += e.getAmount();
+        }
+
+        return new AggregationResult(categoryTotals, total, seriesData);
+    }
+}
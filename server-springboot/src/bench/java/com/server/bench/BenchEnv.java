@@ -0,0 +1,52 @@
+package com.server.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.cdimascio.dotenv.Dotenv;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// what the benchmarks need from the server's environment without starting spring
+public final class BenchEnv {
+    private BenchEnv() {}
+
+    // the .env the benchmarks run with, written to a temp directory so no real secrets are needed
+    public static Dotenv dotenv() {
+        return Dotenv.configure().directory(envDirectory().toString()).load();
+    }
+
+    // a new temp directory holding that .env, for a server started with --env.directory
+    public static Path envDirectory() {
+        try {
+            Path dir = Files.createTempDirectory("bench-env");
+            Files.writeString(dir.resolve(".env"), String.join("\n",
+                "JWT_SECRET=benchmark-secret-benchmark-secret-benchmark-secret",
+                "JWT_EXPIRY_MINUTES=60",
+                "SECURITY_PEPPER=benchmark-pepper",
+                ""
+            ));
+            return dir;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // configured like spring boot's ObjectMapper, dates are written as "2025-12-04"
+    public static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    }
+
+    // without spring boot logback logs everything at DEBUG, which would be measured along with the request
+    public static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+}
@@ -0,0 +1,89 @@
+package com.server.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.server.controller.DataEntryController;
+import com.server.model.DataEntry;
+import com.server.service.DataEntryService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// DataEntryController behind spring mvc's dispatcher through MockMvc: request mapping, argument binding,
+// ETag check and message conversion, with a service that never touches mongo
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataEntryMappingBenchmark {
+    private static final int LIST_SIZE = 100;
+
+    // answers from memory, the repositories and templates of the real service are left null
+    static class InMemoryDataEntryService extends DataEntryService {
+        private final List<DataEntry> entries = SerializationBenchmark.entries(LIST_SIZE);
+
+        InMemoryDataEntryService() {
+            super(null, null, null, null, null);
+        }
+
+        @Override
+        public List<DataEntry> getByUsername(String username) {
+            return entries;
+        }
+
+        @Override
+        public long getVersion(String username) {
+            return 42;
+        }
+
+        @Override
+        public DataEntry save(DataEntry entry) {
+            return entry;
+        }
+    }
+
+    private MockMvc mockMvc;
+    private byte[] newEntry;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchEnv.quietLogging();
+        ObjectMapper objectMapper = BenchEnv.objectMapper();
+        mockMvc = MockMvcBuilders
+            .standaloneSetup(new DataEntryController(new InMemoryDataEntryService(), objectMapper))
+            .build();
+        newEntry = objectMapper.writeValueAsBytes(new DataEntry(
+            "johndoe", "Expense", java.time.LocalDate.of(2025, 12, 4), "Food", "lunch", 1200, "Cash"
+        ));
+    }
+
+    @Benchmark
+    public byte[] listByUser() throws Exception {
+        return mockMvc.perform(get("/api/data-entries/user/johndoe"))
+            .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    @Benchmark
+    public byte[] addEntry() throws Exception {
+        return mockMvc.perform(post("/api/data-entries").contentType(MediaType.APPLICATION_JSON).content(newEntry))
+            .andReturn().getResponse().getContentAsByteArray();
+    }
+}
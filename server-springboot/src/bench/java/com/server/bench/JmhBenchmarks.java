@@ -0,0 +1,28 @@
+package com.server.bench;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+// runs every JMH benchmark of this profile and keeps the results as JSON in bench-results/,
+// one file per run, so the cost of each request path can be compared across changes
+//
+//   mvn -Pbench compile exec:exec@jmh
+//
+// extra args are passed to JMH, e.g. a benchmark name regex
+public class JmhBenchmarks {
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Path.of("bench-results");
+        Files.createDirectories(dir);
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path result = dir.resolve("jmh-" + stamp + ".json");
+
+        List<String> jmhArgs = new ArrayList<>(List.of("-rf", "json", "-rff", result.toString()));
+        jmhArgs.addAll(List.of(args));
+        org.openjdk.jmh.Main.main(jmhArgs.toArray(String[]::new));
+    }
+}
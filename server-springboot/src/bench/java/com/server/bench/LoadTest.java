@@ -0,0 +1,425 @@
+package com.server.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.server.ServerApplication;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// capacity test that needs nothing but a JDK: starts an in-memory mongo (mongo-java-server) and ServerApplication
+// in this process, seeds users through /auth/register, then sends a mixed workload at a fixed rate over HTTP
+//
+//   mvn -Pbench compile exec:java -Dexec.mainClass=com.server.bench.LoadTest -Dexec.args="rate=300 duration=60"
+//
+// args (key=value, all optional):
+//   rate      requests per second                        default 200
+//   duration  seconds measured                           default 60
+//   warmup    seconds sent before measuring              default 10
+//   users     users registered before the run            default 20
+//   entries   entries added per user before the run      default 100
+//   mongo     "embedded", or a mongodb:// uri to run against a real database   default embedded
+//   server    base url of an already running server, nothing is started then
+//
+// the load is open loop: requests go out on schedule whether or not earlier ones returned, and latency is measured
+// from the scheduled send time, so a stalled server shows up in the percentiles instead of slowing the test down
+// percentiles per endpoint are written to bench-results/load-<timestamp>.md
+public class LoadTest {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String PASSWORD = "load-password";
+    private static final String[] CATEGORIES = { "Food", "Grocery", "Transport", "Shopping", "Rent", "Other" };
+    // entry ids kept per user for updates and deletes, refilled from a list call when they run low
+    private static final int MIN_KNOWN_IDS = 10;
+
+    // the mix, weights add up to 100
+    enum Op {
+        LOGIN(5),
+        LIST_ENTRIES(35),
+        ADD_ENTRY(20),
+        UPDATE_ENTRY(15),
+        DELETE_ENTRY(10),
+        CATEGORIES(15);
+
+        final int weight;
+
+        Op(int weight) {
+            this.weight = weight;
+        }
+
+        static Op pick() {
+            int roll = ThreadLocalRandom.current().nextInt(100);
+            for (Op op : values()) {
+                roll -= op.weight;
+                if (roll < 0) {
+                    return op;
+                }
+            }
+            return LIST_ENTRIES;
+        }
+    }
+
+    private static class LoadUser {
+        final String username;
+        volatile String token;
+        final ConcurrentLinkedDeque<String> entryIds = new ConcurrentLinkedDeque<>();
+
+        LoadUser(String username) {
+            this.username = username;
+        }
+    }
+
+    private static class Stats {
+        // latencies in microseconds, one hour max
+        final Histogram latency = new ConcurrentHistogram(TimeUnit.HOURS.toMicros(1), 3);
+        final AtomicLong errors = new AtomicLong();
+    }
+
+    private final String baseUrl;
+    private final HttpClient http = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+    private final List<LoadUser> users = new ArrayList<>();
+    private final Map<Op, Stats> stats = new EnumMap<>(Op.class);
+
+    private LoadTest(String baseUrl) {
+        this.baseUrl = baseUrl;
+        for (Op op : Op.values()) {
+            stats.put(op, new Stats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+        int rate = Integer.parseInt(options.getOrDefault("rate", "200"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int userCount = Integer.parseInt(options.getOrDefault("users", "20"));
+        int entriesPerUser = Integer.parseInt(options.getOrDefault("entries", "100"));
+
+        MongoServer mongo = null;
+        ConfigurableApplicationContext server = null;
+        String baseUrl = options.get("server");
+        try {
+            if (baseUrl == null) {
+                String mongoUri = options.getOrDefault("mongo", "embedded");
+                if (mongoUri.equals("embedded")) {
+                    mongo = new MongoServer(new MemoryBackend());
+                    InetSocketAddress address = mongo.bind();
+                    mongoUri = "mongodb://" + address.getHostString() + ":" + address.getPort() + "/moneydb";
+                }
+
+                server = new SpringApplicationBuilder(ServerApplication.class).run(
+                    "--server.port=0",
+                    "--management.server.port=0",
+                    "--spring.data.mongodb.uri=" + mongoUri,
+                    "--env.directory=" + BenchEnv.envDirectory(),
+                    // the in-memory stand-in cannot explain queries
+                    "--mongo.slow-query.explain=" + (mongo == null),
+                    "--logging.level.root=WARN"
+                );
+                baseUrl = "http://localhost:" + server.getEnvironment().getProperty("local.server.port");
+            }
+
+            LoadTest test = new LoadTest(baseUrl);
+            System.out.println("seeding " + userCount + " users with " + entriesPerUser + " entries each");
+            test.seed(userCount, entriesPerUser);
+
+            System.out.println("warming up at " + rate + " req/s for " + warmup + "s");
+            test.run(rate, Duration.ofSeconds(warmup));
+            test.reset();
+
+            System.out.println("measuring at " + rate + " req/s for " + duration + "s");
+            long sent = test.run(rate, Duration.ofSeconds(duration));
+
+            String report = test.report(rate, duration, sent, mongo != null);
+            System.out.println(report);
+            Path file = write(report);
+            System.out.println("report written to " + file);
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+            if (mongo != null) {
+                mongo.shutdown();
+            }
+        }
+    }
+
+    private void seed(int userCount, int entriesPerUser) throws Exception {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        for (int u = 0; u < userCount; u++) {
+            LoadUser user = new LoadUser("load-" + run + "-" + u);
+            String registered = post(null, "/auth/register", Map.of(
+                "firstName", "Load",
+                "lastName", "User",
+                "email", user.username + "@load.local",
+                "username", user.username,
+                "password", PASSWORD
+            )).body();
+            if (!registered.equals("OK")) {
+                throw new IllegalStateException("register failed for " + user.username + ": " + registered);
+            }
+            login(user);
+            for (int i = 0; i < entriesPerUser; i++) {
+                addEntry(user);
+            }
+            refreshIds(user);
+            users.add(user);
+        }
+    }
+
+    // sends rate requests per second for the given time, returns how many were sent
+    private long run(int rate, Duration duration) throws InterruptedException {
+        ExecutorService workers = newWorkers();
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long sent = 0;
+        try {
+            for (long scheduled = start; scheduled < end; scheduled = start + ++sent * interval) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long intended = scheduled;
+                Op op = Op.pick();
+                LoadUser user = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+                workers.execute(() -> execute(op, user, intended));
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        return sent;
+    }
+
+    private void execute(Op op, LoadUser user, long intended) {
+        boolean ok;
+        try {
+            ok = switch (op) {
+                case LOGIN -> login(user);
+                case LIST_ENTRIES -> listEntries(user);
+                case ADD_ENTRY -> addEntry(user);
+                case UPDATE_ENTRY -> updateEntry(user);
+                case DELETE_ENTRY -> deleteEntry(user);
+                case CATEGORIES -> get(user, "/categories/" + user.username).statusCode() == 200;
+            };
+        } catch (Exception e) {
+            ok = false;
+        }
+
+        Stats s = stats.get(op);
+        if (ok) {
+            s.latency.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended)));
+        } else {
+            s.errors.incrementAndGet();
+        }
+    }
+
+    private boolean login(LoadUser user) throws Exception {
+        JsonNode body = objectMapper.readTree(post(null, "/auth/login", Map.of(
+            "username", user.username,
+            "password", PASSWORD
+        )).body());
+        if (!body.path("success").asBoolean()) {
+            return false;
+        }
+        user.token = body.path("token").asText();
+        return true;
+    }
+
+    private boolean listEntries(LoadUser user) throws Exception {
+        HttpResponse<String> response = get(user, "/api/data-entries/user/" + user.username);
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        if (user.entryIds.size() < MIN_KNOWN_IDS) {
+            fillIds(user, response.body());
+        }
+        return true;
+    }
+
+    private boolean addEntry(LoadUser user) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return post(user, "/api/data-entries", entry(user, random)).body().equals("OK");
+    }
+
+    private boolean updateEntry(LoadUser user) throws Exception {
+        String id = user.entryIds.peekFirst();
+        if (id == null) {
+            return listEntries(user);
+        }
+        HttpRequest request = request(user, "/api/data-entries/" + id)
+            .header("Content-Type", "application/json")
+            .PUT(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(entry(user, ThreadLocalRandom.current()))))
+            .build();
+        String body = http.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        // another request may have deleted it in the meantime
+        return body.equals("OK") || body.equals("NOT_FOUND");
+    }
+
+    private boolean deleteEntry(LoadUser user) throws Exception {
+        String id = user.entryIds.pollLast();
+        if (id == null) {
+            return listEntries(user);
+        }
+        HttpRequest request = request(user, "/api/data-entries/" + id).DELETE().build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString()).statusCode() == 200;
+    }
+
+    private void refreshIds(LoadUser user) throws Exception {
+        fillIds(user, get(user, "/api/data-entries/user/" + user.username).body());
+    }
+
+    private static void fillIds(LoadUser user, String body) throws IOException {
+        user.entryIds.clear();
+        for (JsonNode entry : objectMapper.readTree(body)) {
+            user.entryIds.add(entry.path("id").asText());
+        }
+    }
+
+    private static Map<String, Object> entry(LoadUser user, ThreadLocalRandom random) {
+        return Map.of(
+            "username", user.username,
+            "type", random.nextInt(5) == 0 ? "Income" : "Expense",
+            "date", LocalDate.now().minusDays(random.nextInt(365)).toString(),
+            "category", CATEGORIES[random.nextInt(CATEGORIES.length)],
+            "note", "load test",
+            "amount", 100 + random.nextInt(10000),
+            "paymentType", random.nextBoolean() ? "Cash" : "Credit"
+        );
+    }
+
+    private HttpRequest.Builder request(LoadUser user, String path) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(30));
+        if (user != null) {
+            request.header("Authorization", "Bearer " + user.token);
+        }
+        return request;
+    }
+
+    private HttpResponse<String> get(LoadUser user, String path) throws Exception {
+        return http.send(request(user, path).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(LoadUser user, String path, Object body) throws Exception {
+        HttpRequest request = request(user, path)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+            .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void reset() {
+        stats.values().forEach(s -> {
+            s.latency.reset();
+            s.errors.set(0);
+        });
+    }
+
+    private String report(int rate, int duration, long sent, boolean embedded) {
+        StringBuilder out = new StringBuilder();
+        out.append("# Load test ").append(LocalDateTime.now().withNano(0)).append("\n\n");
+        out.append("- target rate: ").append(rate).append(" req/s, ").append(duration).append("s measured, ")
+            .append(sent).append(" requests sent\n");
+        out.append("- users: ").append(users.size()).append(", mongo: ").append(embedded ? "embedded (in-memory)" : "external").append("\n");
+        out.append("- workers: ").append(virtualThreads() ? "virtual threads" : "platform threads").append("\n");
+        out.append("- java: ").append(System.getProperty("java.version"))
+            .append(", cpus: ").append(Runtime.getRuntime().availableProcessors()).append("\n\n");
+
+        out.append("| endpoint | requests | errors | req/s | p50 ms | p90 ms | p99 ms | p99.9 ms | max ms |\n");
+        out.append("|---|---:|---:|---:|---:|---:|---:|---:|---:|\n");
+        Histogram all = new Histogram(TimeUnit.HOURS.toMicros(1), 3);
+        long errors = 0;
+        for (Op op : Op.values()) {
+            Stats s = stats.get(op);
+            Histogram h = s.latency.copy();
+            all.add(h);
+            errors += s.errors.get();
+            row(out, op.name(), h, s.errors.get(), duration);
+        }
+        row(out, "ALL", all, errors, duration);
+        return out.toString();
+    }
+
+    private static void row(StringBuilder out, String name, Histogram h, long errors, int duration) {
+        out.append(String.format("| %s | %d | %d | %.1f | %.2f | %.2f | %.2f | %.2f | %.2f |%n",
+            name,
+            h.getTotalCount(),
+            errors,
+            h.getTotalCount() / (double) duration,
+            h.getValueAtPercentile(50) / 1000.0,
+            h.getValueAtPercentile(90) / 1000.0,
+            h.getValueAtPercentile(99) / 1000.0,
+            h.getValueAtPercentile(99.9) / 1000.0,
+            h.getMaxValue() / 1000.0
+        ));
+    }
+
+    private static Path write(String report) throws IOException {
+        Path dir = Path.of("bench-results");
+        Files.createDirectories(dir);
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        return Files.writeString(dir.resolve("load-" + stamp + ".md"), report);
+    }
+
+    // a virtual thread per request on JDK 21+ (looked up at runtime, this compiles for 17),
+    // otherwise a growing pool of platform threads, so a slow server never holds back the schedule
+    private static ExecutorService newWorkers() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "load-worker");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    private static boolean virtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
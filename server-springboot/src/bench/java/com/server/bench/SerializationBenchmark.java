@@ -0,0 +1,74 @@
+package com.server.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.server.model.DataEntry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// json encoding of entry lists as the entry endpoints send them
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+    private static final String[] CATEGORIES = { "Food", "Grocery", "Transport", "Shopping", "Rent", "Other" };
+
+    @Param({ "1000", "10000", "100000" })
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<DataEntry> entries;
+
+    @Setup
+    public void setup() {
+        objectMapper = BenchEnv.objectMapper();
+        entries = entries(size);
+    }
+
+    @Benchmark
+    public void writeList() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), entries);
+    }
+
+    @Benchmark
+    public byte[] writeListAsBytes() throws Exception {
+        return objectMapper.writeValueAsBytes(entries);
+    }
+
+    static List<DataEntry> entries(int size) {
+        List<DataEntry> list = new ArrayList<>(size);
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < size; i++) {
+            DataEntry entry = new DataEntry(
+                "johndoe",
+                i % 5 == 0 ? "Income" : "Expense",
+                start.plusDays(i % 365),
+                CATEGORIES[i % CATEGORIES.length],
+                "entry " + i,
+                100 + i % 10000,
+                i % 2 == 0 ? "Cash" : "Credit"
+            );
+            entry.setVersion((long) i);
+            list.add(entry);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,189 @@
+package com.server.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+// compares the server's platform thread and virtual thread modes from the outside
+// start the server once with spring.threads.virtual.enabled=false and once with true (JDK 21+),
+// run this against each and compare the two lines it prints
+//
+//   mvn -Pbench compile exec:java -Dexec.mainClass=com.server.bench.ThreadModeBenchmark \
+//       -Dexec.args="http://localhost:8080 200 30"
+//
+// args: base url, concurrent clients (default 200), seconds to run (default 30)
+// every client loops without think time: 80% entry lists, 10% category lists, 10% registrations,
+// registrations are the calls AuthService fans out on virtual threads
+public class ThreadModeBenchmark {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final int SEED_ENTRIES = 200;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    private final String baseUrl;
+    private final HttpClient http = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+
+    private String username;
+    private String token;
+
+    private ThreadModeBenchmark(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        ThreadModeBenchmark bench = new ThreadModeBenchmark(baseUrl);
+        bench.seed();
+
+        System.out.println("warming up for " + WARMUP.toSeconds() + "s");
+        bench.run(clients, WARMUP);
+
+        Result result = bench.run(clients, Duration.ofSeconds(seconds));
+        System.out.printf(
+            "clients=%d seconds=%d requests=%d errors=%d throughput=%.1f req/s p50=%.2fms p99=%.2fms max=%.2fms%n",
+            clients, seconds, result.latencies().length, result.errors(),
+            result.latencies().length / (double) seconds,
+            percentile(result.latencies(), 50), percentile(result.latencies(), 99), percentile(result.latencies(), 100)
+        );
+    }
+
+    private record Result(long[] latencies, long errors) {}
+
+    // one user with some entries, the lists read in the loop are not empty
+    private void seed() throws Exception {
+        username = "bench-" + UUID.randomUUID().toString().substring(0, 8);
+        register(username);
+
+        JsonNode login = objectMapper.readTree(
+            post("/auth/login", Map.of("username", username, "password", "bench-password"), false).body()
+        );
+        if (!login.path("success").asBoolean()) {
+            throw new IllegalStateException("login failed: " + login);
+        }
+        token = login.path("token").asText();
+
+        for (int i = 0; i < SEED_ENTRIES; i++) {
+            post("/api/data-entries", Map.of(
+                "username", username,
+                "type", i % 5 == 0 ? "Income" : "Expense",
+                "date", LocalDate.now().minusDays(i % 60).toString(),
+                "category", "Food",
+                "note", "bench " + i,
+                "amount", 100 + i,
+                "paymentType", "Cash"
+            ), true);
+        }
+    }
+
+    // closed loop: each client sends its next request as soon as the previous one returns
+    private Result run(int clients, Duration duration) throws Exception {
+        long end = System.nanoTime() + duration.toNanos();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            long[] errors = new long[clients];
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                futures.add(pool.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < end) {
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = next() / 100 == 2;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        if (!ok) {
+                            errors[client]++;
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+
+            List<long[]> all = new ArrayList<>();
+            for (Future<long[]> f : futures) {
+                all.add(f.get());
+            }
+            long[] merged = all.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Result(merged, Arrays.stream(errors).sum());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // one request of the mix, returns its status code
+    private int next() throws Exception {
+        int pick = ThreadLocalRandom.current().nextInt(10);
+        if (pick < 8) {
+            return get("/api/data-entries/user/" + username).statusCode();
+        }
+        if (pick < 9) {
+            return get("/categories/" + username).statusCode();
+        }
+        return register("bench-" + UUID.randomUUID().toString().substring(0, 12)).statusCode();
+    }
+
+    private HttpResponse<String> register(String name) throws Exception {
+        return post("/auth/register", Map.of(
+            "firstName", "Bench",
+            "lastName", "User",
+            "email", name + "@bench.local",
+            "username", name,
+            "password", "bench-password"
+        ), false);
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Authorization", "Bearer " + token)
+            .GET()
+            .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, Object body, boolean auth) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (auth) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    // nearest rank percentile of sorted nanosecond latencies, in milliseconds
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,39 @@
+package com.server.service;
+
+import com.server.bench.BenchEnv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// password hashing as done on every login and registration
+// lives in com.server.service because hashPassword is package private
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashBenchmark {
+    private AuthService authService;
+
+    @Setup
+    public void setup() {
+        // hashing only needs the pepper, none of the repositories are touched
+        authService = new AuthService(null, null, BenchEnv.dotenv(), null, null, null);
+    }
+
+    @Benchmark
+    public String hashPassword() throws Exception {
+        return authService.hashPassword("correct horse battery staple", "c2FsdHNhbHRzYWx0c2FsdA==");
+    }
+}
@@ -0,0 +1,29 @@
+package com.server.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.server.model.EntryColumns;
+
+import java.util.List;
+
+// writers for the binary encodings of the columnar entries format
+// the json one needs nothing extra, the default json converter writes every application/*+json type
+@Configuration
+public class EntryColumnsConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        MappingJackson2SmileHttpMessageConverter smile = new MappingJackson2SmileHttpMessageConverter();
+        smile.setSupportedMediaTypes(List.of(MediaType.parseMediaType(EntryColumns.SMILE_MEDIA_TYPE)));
+        converters.add(smile);
+
+        MappingJackson2CborHttpMessageConverter cbor = new MappingJackson2CborHttpMessageConverter();
+        cbor.setSupportedMediaTypes(List.of(MediaType.parseMediaType(EntryColumns.CBOR_MEDIA_TYPE)));
+        converters.add(cbor);
+    }
+}
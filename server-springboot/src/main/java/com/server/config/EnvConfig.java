@@ -1,6 +1,7 @@
 package com.server.config;
 
 import io.github.cdimascio.dotenv.Dotenv;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -8,9 +9,9 @@ import org.springframework.context.annotation.Configuration;
 public class EnvConfig {
 
     @Bean
-    public Dotenv dotenv() {
+    public Dotenv dotenv(@Value("${env.directory:/app}") String directory) {
         return Dotenv.configure()
-            .directory("/app")     // where .env lives inside container
+            .directory(directory)  // where .env lives, /app inside container
             .ignoreIfMissing()     // avoids crash locally
             .load();
     }
@@ -0,0 +1,63 @@
+package com.server.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.server.model.CacheStats;
+import com.server.security.JWTUtil;
+import com.server.service.CurrencyService;
+import com.server.service.ExpenseCategoryService;
+import com.server.service.StatsService;
+
+import java.util.function.Function;
+
+// metrics of our own, served with everything spring boot's actuator records on /actuator/prometheus of the management port
+// actuator itself already times every request per route (http.server.requests), every mongo command per
+// command and collection (mongodb.driver.commands), the driver's connection pools (mongodb.driver.pool.*)
+// and the JVM (jvm.memory.*, jvm.gc.*, jvm.threads.*), see the management.* settings in application.properties
+@Configuration
+public class MetricsConfig {
+
+    // hit / miss counters and size of the in-process caches, named like micrometer's own cache metrics
+    // (cache.gets{cache, result}, cache.size{cache}), plus the number of JWTs that failed verification
+    @Bean
+    MeterBinder cacheMetrics(
+        ExpenseCategoryService categoryService,
+        CurrencyService currencyService,
+        StatsService statsService,
+        JWTUtil jwtUtil
+    ) {
+        return registry -> {
+            bindCache(registry, "categories", categoryService, ExpenseCategoryService::getCacheStats);
+            bindCache(registry, "currencies", currencyService, CurrencyService::getCacheStats);
+            bindCache(registry, "stats", statsService, StatsService::getCacheStats);
+            bindCache(registry, "tokens", jwtUtil, JWTUtil::getCacheStats);
+
+            FunctionCounter.builder("jwt.rejected", jwtUtil, JWTUtil::getRejectedCount)
+                .description("Bearer tokens that failed verification")
+                .register(registry);
+        };
+    }
+
+    // micrometer only keeps a weak reference to source, the services are singletons so they outlive the registry
+    private static <T> void bindCache(MeterRegistry registry, String name, T source, Function<T, CacheStats> stats) {
+        FunctionCounter.builder("cache.gets", source, s -> stats.apply(s).hits())
+            .tag("cache", name)
+            .tag("result", "hit")
+            .description("Lookups answered from the cache")
+            .register(registry);
+        FunctionCounter.builder("cache.gets", source, s -> stats.apply(s).misses())
+            .tag("cache", name)
+            .tag("result", "miss")
+            .description("Lookups that had to read the database")
+            .register(registry);
+        Gauge.builder("cache.size", source, s -> stats.apply(s).size())
+            .tag("cache", name)
+            .description("Entries held in the cache")
+            .register(registry);
+    }
+}
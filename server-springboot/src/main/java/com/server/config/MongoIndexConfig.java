@@ -0,0 +1,124 @@
+package com.server.config;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Collation;
+
+import com.server.model.Currency;
+import com.server.model.DataEntry;
+import com.server.model.DataEntryRollup;
+import com.server.model.ExpenseCategory;
+import com.server.model.Tombstone;
+import com.server.model.User;
+
+import java.util.Locale;
+
+// creates the indexes our queries depend on when the application starts
+// ensureIndex is a no-op if the index already exists, so running it on every boot is safe
+//
+// the unique indexes are also how duplicates are rejected: register and the create calls insert straight away and
+// treat a DuplicateKeyException as "already exists", one round trip and no window between a check and the save
+@Configuration
+public class MongoIndexConfig {
+
+    // compares strings ignoring case (and nothing else), "Food" and "food" are the same key under it
+    // only queries asking for the same collation can use a collated index, so these indexes are for uniqueness and
+    // the per user category reads keep using username_version
+    public static final Collation CASE_INSENSITIVE = Collation.of(Locale.ENGLISH).strength(Collation.ComparisonLevel.secondary());
+
+    // login and register look users up by username and email, both identify exactly one user
+    public static final String USER_USERNAME_INDEX = "username";
+    public static final String USER_EMAIL_INDEX = "email";
+
+    // a user can not have two categories whose names only differ in case
+    public static final String CATEGORY_USER_NAME_INDEX = "username_name";
+
+    // one currency per code, ignoring case like CurrencyService.getByCode
+    public static final String CURRENCY_CODE_INDEX = "code";
+
+    // compound index used by the paginated, date ranged entries query
+    // (username, date, _id) matches the filter + keyset sort, so mongo never scans other users' entries
+    public static final String ENTRY_USER_DATE_INDEX = "username_date_id";
+
+    // one rollup document per (username, type, category, granularity, bucket)
+    // unique so concurrent $inc upserts of the same bucket can never create two documents
+    public static final String ROLLUP_KEY_INDEX = "username_type_granularity_bucket_category";
+
+    // delta sync reads "everything of this user with version > since" from entries, categories and tombstones
+    public static final String USER_VERSION_INDEX = "username_version";
+
+    // tombstone compaction looks for old tombstones across all users
+    public static final String TOMBSTONE_DELETED_AT_INDEX = "deletedAt";
+
+    @Bean
+    @Order(1)
+    CommandLineRunner createIndexes(MongoTemplate mongoTemplate) {
+        return args -> {
+            ensureUnique(mongoTemplate, User.class,
+                new Index().on("username", Sort.Direction.ASC).unique().named(USER_USERNAME_INDEX));
+            ensureUnique(mongoTemplate, User.class,
+                new Index().on("email", Sort.Direction.ASC).unique().named(USER_EMAIL_INDEX));
+            ensureUnique(mongoTemplate, ExpenseCategory.class,
+                new Index()
+                    .on("username", Sort.Direction.ASC)
+                    .on("name", Sort.Direction.ASC)
+                    .unique()
+                    .collation(CASE_INSENSITIVE)
+                    .named(CATEGORY_USER_NAME_INDEX));
+            ensureUnique(mongoTemplate, Currency.class,
+                new Index().on("code", Sort.Direction.ASC).unique().collation(CASE_INSENSITIVE).named(CURRENCY_CODE_INDEX));
+
+            // also serves every (username) and (username, date) query on entries, so there is no separate index for them
+            mongoTemplate.indexOps(DataEntry.class).ensureIndex(
+                new Index()
+                    .on("username", Sort.Direction.ASC)
+                    .on("date", Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC)
+                    .named(ENTRY_USER_DATE_INDEX)
+            );
+
+            // bucket before category, so stats range reads over buckets stay inside the index
+            mongoTemplate.indexOps(DataEntryRollup.class).ensureIndex(
+                new Index()
+                    .on("username", Sort.Direction.ASC)
+                    .on("type", Sort.Direction.ASC)
+                    .on("granularity", Sort.Direction.ASC)
+                    .on("bucket", Sort.Direction.ASC)
+                    .on("category", Sort.Direction.ASC)
+                    .unique()
+                    .named(ROLLUP_KEY_INDEX)
+            );
+
+            for (Class<?> type : new Class<?>[] { DataEntry.class, ExpenseCategory.class, Tombstone.class }) {
+                mongoTemplate.indexOps(type).ensureIndex(
+                    new Index()
+                        .on("username", Sort.Direction.ASC)
+                        .on("version", Sort.Direction.ASC)
+                        .named(USER_VERSION_INDEX)
+                );
+            }
+
+            mongoTemplate.indexOps(Tombstone.class).ensureIndex(
+                new Index()
+                    .on("deletedAt", Sort.Direction.ASC)
+                    .named(TOMBSTONE_DELETED_AT_INDEX)
+            );
+        };
+    }
+
+    // a unique index can not be built while the collection still holds duplicates from before it existed
+    // the server still starts then, so the duplicates can be cleaned up through it, and says what to fix
+    private static void ensureUnique(MongoTemplate mongoTemplate, Class<?> type, Index index) {
+        try {
+            mongoTemplate.indexOps(type).ensureIndex(index);
+        } catch (Exception e) {
+            System.out.println("✘ Could not create unique index " + index.getIndexOptions().get("name") + " on "
+                + mongoTemplate.getCollectionName(type) + ", remove the duplicates and restart: " + e.getMessage());
+        }
+    }
+}
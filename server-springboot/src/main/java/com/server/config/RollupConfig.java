@@ -0,0 +1,48 @@
+package com.server.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.server.model.DataEntry;
+import com.server.model.DataEntryRollup;
+import com.server.service.RollupService;
+
+// backfills the data_entry_rollups collection from data_entries
+// runs automatically when rollups are missing (first start after upgrading), or on demand with:
+//   java -jar app.jar --rebuild-rollups
+//
+// a rebuild drops every rollup and sums them again, an entry saved meanwhile would have its $inc lost or counted twice,
+// so it runs once the beans exist but before the web server starts, when no request can write yet
+// nothing stops another process though: stop the reactive server and any other instance before --rebuild-rollups
+@Configuration
+public class RollupConfig {
+
+    public static final String REBUILD_ARG = "rebuild-rollups";
+
+    @Bean
+    SmartInitializingSingleton rebuildRollups(
+        RollupService rollupService,
+        MongoTemplate mongoTemplate,
+        ApplicationArguments args
+    ) {
+        return () -> {
+            if (!shouldRebuild(args, mongoTemplate)) {
+                return;
+            }
+            long written = rollupService.rebuild();
+            System.out.println("✔ Rebuilt " + written + " data entry rollups.");
+        };
+    }
+
+    private boolean shouldRebuild(ApplicationArguments args, MongoTemplate mongoTemplate) {
+        if (args.containsOption(REBUILD_ARG)) {
+            return true;
+        }
+        // entries exist but were never rolled up
+        return mongoTemplate.estimatedCount(DataEntryRollup.class) == 0
+            && mongoTemplate.estimatedCount(DataEntry.class) > 0;
+    }
+}
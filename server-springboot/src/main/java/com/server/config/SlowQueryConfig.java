@@ -0,0 +1,37 @@
+package com.server.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+
+// registers SlowQueryListener on the mongo client spring boot builds
+//   mongo.slow-query.threshold-ms               queries at least this slow are logged, 0 turns the listener off
+//   mongo.slow-query.explain                    also explain them and log the plan
+//   mongo.slow-query.explain-interval-seconds   explain the same query shape at most this often
+@Configuration
+public class SlowQueryConfig {
+
+    @Bean
+    MongoClientSettingsBuilderCustomizer slowQueryListener(
+        @Value("${mongo.slow-query.threshold-ms:100}") long thresholdMillis,
+        @Value("${mongo.slow-query.explain:true}") boolean explain,
+        @Value("${mongo.slow-query.explain-interval-seconds:600}") long explainIntervalSeconds,
+        ObjectProvider<MongoTemplate> mongoTemplate
+    ) {
+        return settings -> {
+            if (thresholdMillis > 0) {
+                settings.addCommandListener(new SlowQueryListener(
+                    Duration.ofMillis(thresholdMillis),
+                    explain,
+                    Duration.ofSeconds(explainIntervalSeconds),
+                    mongoTemplate
+                ));
+            }
+        };
+    }
+}
@@ -0,0 +1,249 @@
+package com.server.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// flags mongo queries slower than mongo.slow-query.threshold-ms and explains them in the background
+// the explain shows the winning plan, the indexes it used and how many keys / documents were examined for how many
+// returned, which is what tells a missing index (COLLSCAN, examined >> returned) apart from a merely large result
+//
+// commands are copied when they start, because the driver reuses their buffers once the event returns;
+// only read commands are tracked, and only while they run
+// each query shape (command, collection, filter fields) is explained at most once per mongo.slow-query.explain-interval-seconds
+public class SlowQueryListener implements CommandListener {
+    private static final Set<String> EXPLAINABLE = Set.of("find", "aggregate", "count", "distinct", "findAndModify");
+    // explains waiting to run, more slow queries than this at once are only logged
+    private static final int MAX_QUEUED_EXPLAINS = 50;
+
+    // command is only copied when slow queries are explained
+    private record Started(String database, String collection, BsonDocument command) {}
+
+    private final long thresholdNanos;
+    private final boolean explain;
+    private final long explainIntervalMillis;
+    private final ObjectProvider<MongoTemplate> mongoTemplate;
+
+    private final Map<Integer, Started> running = new ConcurrentHashMap<>();   // request id -> copy of the command
+    private final Map<String, Long> lastExplained = new ConcurrentHashMap<>(); // query shape -> time of last explain
+    private final ThreadPoolExecutor explainer = new ThreadPoolExecutor(
+        1, 1, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(MAX_QUEUED_EXPLAINS),
+        r -> {
+            Thread t = new Thread(r, "slow-query-explain");
+            t.setDaemon(true);
+            return t;
+        },
+        new ThreadPoolExecutor.DiscardPolicy()
+    );
+
+    // mongoTemplate is looked up when the first explain runs, the template needs the client this listener is part of
+    public SlowQueryListener(
+        Duration threshold,
+        boolean explain,
+        Duration explainInterval,
+        ObjectProvider<MongoTemplate> mongoTemplate
+    ) {
+        this.thresholdNanos = threshold.toNanos();
+        this.explain = explain;
+        this.explainIntervalMillis = explainInterval.toMillis();
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String commandName = event.getCommandName();
+        if (EXPLAINABLE.contains(commandName)) {
+            BsonDocument command = event.getCommand();
+            running.put(event.getRequestId(), new Started(
+                event.getDatabaseName(),
+                collection(command, commandName),
+                explain ? command.clone() : null
+            ));
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        finished(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        finished(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private void finished(int requestId, String commandName, long elapsedNanos) {
+        Started started = running.remove(requestId);
+        if (started == null || elapsedNanos < thresholdNanos) {
+            return;
+        }
+
+        System.out.println("⚠ Slow mongo " + commandName + " on " + started.collection() + ": "
+            + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms");
+
+        if (started.command() == null) {
+            return;
+        }
+        String shape = shape(started.command(), commandName, started.collection());
+        long now = System.currentTimeMillis();
+        Long previous = lastExplained.get(shape);
+        if (previous != null && now - previous < explainIntervalMillis) {
+            return;
+        }
+        lastExplained.put(shape, now);
+        explainer.execute(() -> explain(started, shape));
+    }
+
+    private void explain(Started started, String shape) {
+        try {
+            MongoDatabase database = mongoTemplate.getObject().getMongoDatabaseFactory().getMongoDatabase(started.database());
+            System.out.println("⚠ Slow query plan for " + shape + ": " + describe(explain(database, started.command())));
+        } catch (Exception e) {
+            System.out.println("⚠ Could not explain slow query " + shape + ": " + e.getMessage());
+        }
+    }
+
+    // runs explain with execution stats for a command as the driver sent it
+    public static Document explain(MongoDatabase database, BsonDocument sent) {
+        BsonDocument command = new BsonDocument();
+        // driver added fields ($db, lsid, $clusterTime, ...) are not allowed inside explain
+        sent.forEach((key, value) -> {
+            if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                command.put(key, value);
+            }
+        });
+        return database.runCommand(new Document("explain", command).append("verbosity", "executionStats"));
+    }
+
+    public static boolean isExplainable(String commandName) {
+        return EXPLAINABLE.contains(commandName);
+    }
+
+    // winning plan stages, indexes used and examined vs returned counts of an explain result
+    // find / count put queryPlanner and executionStats at the top, aggregate nests them inside its stages
+    public static String describe(Document explain) {
+        Document planner = find(explain, "queryPlanner");
+        Document stats = find(explain, "executionStats");
+
+        List<String> stages = new ArrayList<>();
+        Set<String> indexes = new LinkedHashSet<>();
+        if (planner != null && planner.get("winningPlan") instanceof Document winning) {
+            walkPlan(winning, stages, indexes);
+        }
+
+        StringBuilder out = new StringBuilder();
+        out.append("plan=").append(String.join(" <- ", stages));
+        out.append(", indexes=").append(indexes.isEmpty() ? "none" : String.join(",", indexes));
+        if (stats != null) {
+            out.append(", keysExamined=").append(stats.get("totalKeysExamined"));
+            out.append(", docsExamined=").append(stats.get("totalDocsExamined"));
+            out.append(", returned=").append(stats.get("nReturned"));
+            out.append(", ms=").append(stats.get("executionTimeMillis"));
+        }
+        return out.toString();
+    }
+
+    // true when the plan reads the whole collection instead of an index
+    public static boolean isCollectionScan(Document explain) {
+        Document planner = find(explain, "queryPlanner");
+        if (planner == null || !(planner.get("winningPlan") instanceof Document winning)) {
+            return false;
+        }
+        List<String> stages = new ArrayList<>();
+        walkPlan(winning, stages, new LinkedHashSet<>());
+        return stages.contains("COLLSCAN");
+    }
+
+    // stage names from the top of the plan down to the leaves
+    // newer servers wrap the classic plan in queryPlan for slot based execution
+    private static void walkPlan(Document stage, List<String> stages, Set<String> indexes) {
+        if (stage.get("queryPlan") instanceof Document inner) {
+            walkPlan(inner, stages, indexes);
+            return;
+        }
+        if (stage.getString("stage") != null) {
+            stages.add(stage.getString("stage"));
+        }
+        if (stage.getString("indexName") != null) {
+            indexes.add(stage.getString("indexName"));
+        }
+        if (stage.get("inputStage") instanceof Document input) {
+            walkPlan(input, stages, indexes);
+        }
+        if (stage.get("inputStages") instanceof List<?> inputs) {
+            for (Object input : inputs) {
+                if (input instanceof Document d) {
+                    walkPlan(d, stages, indexes);
+                }
+            }
+        }
+    }
+
+    // first value under key anywhere in the document, depth first
+    private static Document find(Object node, String key) {
+        if (node instanceof Document d) {
+            if (d.get(key) instanceof Document found) {
+                return found;
+            }
+            for (Object value : d.values()) {
+                Document found = find(value, key);
+                if (found != null) {
+                    return found;
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object value : list) {
+                Document found = find(value, key);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String collection(BsonDocument command, String commandName) {
+        BsonValue value = command.get(commandName);
+        return value != null && value.isString() ? value.asString().getValue() : "?";
+    }
+
+    // command, collection and the filter's field names, values left out so every user's query has the same shape
+    private static String shape(BsonDocument command, String commandName, String collection) {
+        Set<String> fields = new TreeSet<>();
+        for (String key : new String[] { "filter", "query" }) {
+            if (command.get(key) instanceof BsonDocument filter) {
+                fields.addAll(filter.keySet());
+            }
+        }
+        if (command.get("pipeline") instanceof BsonArray pipeline) {
+            for (BsonValue stage : pipeline) {
+                if (stage.isDocument()) {
+                    fields.addAll(stage.asDocument().keySet());
+                }
+            }
+        }
+        return commandName + " " + collection + " " + fields;
+    }
+}
@@ -0,0 +1,28 @@
+package com.server.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.server.service.SyncService;
+
+// purges sync tombstones older than sync.tombstone-retention-days, once a day by default
+// clients that have not synced for longer than that fall back to a full sync
+@Configuration
+@EnableScheduling
+public class SyncConfig {
+
+    private final SyncService syncService;
+
+    public SyncConfig(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    @Scheduled(cron = "${sync.tombstone-compaction-cron:0 30 3 * * *}")
+    void compactTombstones() {
+        long removed = syncService.compactTombstones();
+        if (removed > 0) {
+            System.out.println("✔ Compacted " + removed + " sync tombstones.");
+        }
+    }
+}
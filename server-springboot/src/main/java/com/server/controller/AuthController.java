@@ -1,7 +1,11 @@
 package com.server.controller;
 
 import java.util.Map;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.server.model.AccountDeletionJob;
+import com.server.service.AccountDeletionService;
 import com.server.service.AuthService;
 
 // record class to hold auth request data
@@ -13,9 +17,11 @@ record AuthRequest(String firstName, String lastName, String email, String usern
 @RequestMapping("/auth")
 public class AuthController {
     private final AuthService service;
+    private final AccountDeletionService deletionService;
     
-    public AuthController(AuthService s) { 
+    public AuthController(AuthService s, AccountDeletionService deletionService) { 
         this.service = s;
+        this.deletionService = deletionService;
     }
 
     @PostMapping("/register")
@@ -46,12 +52,23 @@ public class AuthController {
         );
     }
 
+    // deletion runs in the background, poll /auth/deletions/{id} for the result
     @DeleteMapping("/{username}")
-    public String deleteAccount(@PathVariable String username) {
-        if(service.deleteAccount(username)){
-            return "OK";
+    public ResponseEntity<?> deleteAccount(@PathVariable String username) {
+        AccountDeletionJob job = deletionService.start(username);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("ERROR");
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/deletions/{id}")
+    public ResponseEntity<AccountDeletionJob> deletionStatus(@PathVariable String id) {
+        AccountDeletionJob job = deletionService.getJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
         }
-        return "ERROR";
+        return ResponseEntity.ok(job);
     }
 
 }
@@ -0,0 +1,68 @@
+package com.server.controller;
+
+import com.server.model.BootstrapColumnsResult;
+import com.server.model.BootstrapResult;
+import com.server.model.EntryColumns;
+import com.server.service.BootstrapService;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+// it maps /api/bootstrap to this controller
+// one call after login instead of one each for the profile, categories, currencies and entries
+// the user is the subject of the JWT, so there is no username in the path
+@RestController
+@RequestMapping("/api/bootstrap")
+@CrossOrigin(origins = "*")
+public class BootstrapController {
+
+    private final BootstrapService service;
+
+    public BootstrapController(BootstrapService service) {
+        this.service = service;
+    }
+
+    // from / to default to the first day of the previous month and the last day of the current one
+    @GetMapping
+    public ResponseEntity<?> bootstrap(
+        Authentication auth,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return load(auth, from, to, false);
+    }
+
+    // same with the entries in the columnar format, picked when the Accept header asks for one of its types
+    @GetMapping(produces = { EntryColumns.JSON_MEDIA_TYPE, EntryColumns.SMILE_MEDIA_TYPE, EntryColumns.CBOR_MEDIA_TYPE })
+    public ResponseEntity<?> bootstrapColumns(
+        Authentication auth,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return load(auth, from, to, true);
+    }
+
+    private ResponseEntity<?> load(Authentication auth, LocalDate from, LocalDate to, boolean columns) {
+        LocalDate start = from != null ? from : BootstrapService.defaultFrom();
+        LocalDate end = to != null ? to : BootstrapService.defaultTo();
+
+        // plain text, a columnar request may not accept json
+        if (start.isAfter(end)) {
+            ResponseEntity.BodyBuilder invalid = ResponseEntity.badRequest();
+            return (columns ? invalid.contentType(MediaType.TEXT_PLAIN) : invalid).body("INVALID");
+        }
+
+        BootstrapResult result = service.load(auth.getName(), start, end);
+        if (result == null) {
+            // token of an account that was deleted since
+            ResponseEntity.BodyBuilder missing = ResponseEntity.status(404);
+            return (columns ? missing.contentType(MediaType.TEXT_PLAIN) : missing).body("NOT_FOUND");
+        }
+        return ResponseEntity.ok(columns ? BootstrapColumnsResult.of(result) : result);
+    }
+}
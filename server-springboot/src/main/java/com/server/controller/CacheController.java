@@ -0,0 +1,46 @@
+package com.server.controller;
+
+import com.server.model.CacheStats;
+import com.server.security.JWTUtil;
+import com.server.service.CurrencyService;
+import com.server.service.ExpenseCategoryService;
+import com.server.service.StatsService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// it maps all routers under /api/caches to this controller
+// hit / miss counters of the in-process caches, to check they are doing their job
+@RestController
+@RequestMapping("/api/caches")
+@CrossOrigin(origins = "*")
+public class CacheController {
+
+    private final ExpenseCategoryService categoryService;
+    private final CurrencyService currencyService;
+    private final JWTUtil jwtUtil;
+    private final StatsService statsService;
+
+    public CacheController(
+        ExpenseCategoryService categoryService,
+        CurrencyService currencyService,
+        JWTUtil jwtUtil,
+        StatsService statsService
+    ) {
+        this.categoryService = categoryService;
+        this.currencyService = currencyService;
+        this.jwtUtil = jwtUtil;
+        this.statsService = statsService;
+    }
+
+    @GetMapping
+    public Map<String, CacheStats> getAll() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("categories", categoryService.getCacheStats());
+        stats.put("currencies", currencyService.getCacheStats());
+        stats.put("tokens", jwtUtil.getCacheStats());
+        stats.put("stats", statsService.getCacheStats());
+        return stats;
+    }
+}
@@ -2,7 +2,10 @@ package com.server.controller;
 
 import com.server.model.Currency;
 import com.server.service.CurrencyService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -22,9 +25,13 @@ public class CurrencyController {
         this.service = service;
     }
 
+    // answered with 304 and no database read when the client's If-None-Match is still current
     @GetMapping
-    public List<Currency> getAll() {
-        return service.getAll();
+    public ResponseEntity<List<Currency>> getAll(WebRequest request) {
+        if (request.checkNotModified("\"currencies-" + service.getVersion() + "\"")) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(service.getAll());
     }
 
     @PostMapping
@@ -1,15 +1,38 @@
 package com.server.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.server.model.BatchItemResult;
 import com.server.model.DataEntry;
+import com.server.model.DataEntryPage;
+import com.server.model.EntryColumns;
+import com.server.model.EntryColumnsPage;
 import com.server.service.DataEntryService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 // record class to hold data entry request data
 record DataEntryRequest(String username, String type, String date, String category, String note, int amount, String paymentType) {}
 
+// record class to hold one operation of a batch request
+// op is create / update / delete, id is needed for update and delete, entry for create and update
+record DataEntryBatchOperation(String op, String id, DataEntryRequest entry) {}
+
 // it maps all routers under /api/data-entries to this controller
 // all functions are stored in service layer, this layer is just to map requests to service functions
 @RestController
@@ -17,14 +40,17 @@ record DataEntryRequest(String username, String type, String date, String catego
 @CrossOrigin(origins = "*")
 public class DataEntryController {
     private final DataEntryService service;
+    private final ObjectMapper objectMapper;
 
-    public DataEntryController(DataEntryService service) {
+    public DataEntryController(DataEntryService service, ObjectMapper objectMapper) {
         this.service = service;
+        this.objectMapper = objectMapper;
     }
 
-    @PostMapping
-    public String addEntry(@RequestBody DataEntryRequest req) {
-        if (
+    // validation rules shared by single and batch writes
+    private static boolean isValid(DataEntryRequest req) {
+        return !(
+            req == null ||
             req.username() == null ||
             req.username().isEmpty() ||
             req.type() == null ||
@@ -36,11 +62,11 @@ public class DataEntryController {
             req.amount() <= 0 ||
             req.paymentType() == null ||
             req.paymentType().isEmpty()
-        ) {
-            return "INVALID";
-        }
+        );
+    }
 
-        DataEntry entry = new DataEntry(
+    private static DataEntry toEntry(DataEntryRequest req) {
+        return new DataEntry(
                 req.username(),
                 req.type(),
                 java.time.LocalDate.parse(req.date()),
@@ -49,15 +75,84 @@ public class DataEntryController {
                 req.amount(),
                 req.paymentType()
         );
+    }
+
+    @PostMapping
+    public String addEntry(@RequestBody DataEntryRequest req) {
+        if (!isValid(req)) {
+            return "INVALID";
+        }
+
+        DataEntry entry = toEntry(req);
         // save entry iff valid
         service.save(entry);
         return "OK";
     }
 
+    // many creates / updates / deletes in one request and one database write
+    // returns one result per operation, in request order, with the ids of created entries
+    @PostMapping("/batch")
+    public ResponseEntity<?> batch(@RequestBody List<DataEntryBatchOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        if (operations.size() > DataEntryService.MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body("TOO_LARGE");
+        }
+
+        List<BatchItemResult> results = new ArrayList<>();
+        List<DataEntryService.BatchOp> valid = new ArrayList<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            DataEntryBatchOperation op = operations.get(i);
+            String name = (op == null || op.op() == null) ? "" : op.op().toUpperCase();
+
+            DataEntryService.BatchKind kind;
+            try {
+                kind = DataEntryService.BatchKind.valueOf(name);
+            } catch (IllegalArgumentException e) {
+                results.add(new BatchItemResult(i, name, "INVALID", null));
+                continue;
+            }
+
+            boolean needsId = kind != DataEntryService.BatchKind.CREATE;
+            boolean needsEntry = kind != DataEntryService.BatchKind.DELETE;
+
+            if ((needsId && (op.id() == null || op.id().isEmpty())) || (needsEntry && !isValid(op.entry()))) {
+                results.add(new BatchItemResult(i, name, "INVALID", op.id()));
+                continue;
+            }
+
+            try {
+                DataEntry values = needsEntry ? toEntry(op.entry()) : null;
+                valid.add(new DataEntryService.BatchOp(i, kind, op.id(), values));
+            } catch (DateTimeParseException e) {
+                results.add(new BatchItemResult(i, name, "INVALID", op.id()));
+            }
+        }
+
+        results.addAll(service.applyBatch(valid));
+        results.sort(Comparator.comparingInt(BatchItemResult::index));
+        return ResponseEntity.ok(results);
+    }
+
+    // get all data entries, written as a json array while the cursor is read instead of collected into a list
     @GetMapping
-    public List<DataEntry> getAll() {
-        // get all data entries
-        return service.getAll();
+    public ResponseEntity<StreamingResponseBody> getAll() {
+        StreamingResponseBody body = out -> {
+            try (
+                Stream<DataEntry> entries = service.streamAll();
+                JsonGenerator json = objectMapper.getFactory().createGenerator(out)
+            ) {
+                json.writeStartArray();
+                Iterator<DataEntry> it = entries.iterator();
+                while (it.hasNext()) {
+                    objectMapper.writeValue(json, it.next());
+                }
+                json.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @GetMapping("/{id}")
@@ -73,9 +168,70 @@ public class DataEntryController {
         return "OK";
     }
 
+    // without query params this returns the full list, as older clients expect
+    // with any of from/to/limit/cursor it returns one page: { entries: [...], nextCursor: "..." }
     @GetMapping("/user/{username}")
-    public List<DataEntry> getByUser(@PathVariable String username) {
-        return service.getByUsername(username);
+    public ResponseEntity<?> getByUser(
+        @PathVariable String username,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String cursor,
+        WebRequest request
+    ) {
+        return byUser(username, from, to, limit, cursor, request, false);
+    }
+
+    // same as above with the entries in the columnar format, picked when the Accept header asks for one of its types
+    // the full list is one EntryColumns, a page is { entries: EntryColumns, nextCursor: "..." }
+    @GetMapping(
+        value = "/user/{username}",
+        produces = { EntryColumns.JSON_MEDIA_TYPE, EntryColumns.SMILE_MEDIA_TYPE, EntryColumns.CBOR_MEDIA_TYPE }
+    )
+    public ResponseEntity<?> getColumnsByUser(
+        @PathVariable String username,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String cursor,
+        WebRequest request
+    ) {
+        return byUser(username, from, to, limit, cursor, request, true);
+    }
+
+    private ResponseEntity<?> byUser(
+        String username,
+        LocalDate from,
+        LocalDate to,
+        Integer limit,
+        String cursor,
+        WebRequest request,
+        boolean columns
+    ) {
+        // the user's data version changes with every write, so an unchanged version means an unchanged body
+        // for every from / to / limit / cursor combination, and the database is not read at all
+        // both formats share the url, so they get different ETags and caches are told the body depends on Accept
+        // weak, tomcat does not gzip a response with a strong ETag
+        String etag = "W/\"entries-" + service.getVersion(username) + (columns ? "-columns" : "") + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT);
+
+        if (from == null && to == null && limit == null && cursor == null) {
+            List<DataEntry> entries = service.getByUsername(username);
+            return ok.body(columns ? EntryColumns.of(entries) : entries);
+        }
+
+        try {
+            DataEntryPage page = service.getPageByUsername(username, from, to, limit, cursor);
+            return ok.body(columns ? EntryColumnsPage.of(page) : page);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // cursor was tampered with or came from somewhere else
+            // plain text, a columnar request may not accept json
+            ResponseEntity.BodyBuilder invalid = ResponseEntity.badRequest();
+            return (columns ? invalid.contentType(MediaType.TEXT_PLAIN) : invalid).body("INVALID_CURSOR");
+        }
     }
 
     @PutMapping("/{id}")
@@ -87,6 +243,8 @@ public class DataEntryController {
         }
 
         DataEntry entry = existing.get();
+        // remember the old values, rollups need to reverse them
+        DataEntry previous = new DataEntry(entry);
 
         // update fields
         entry.setType(req.type());
@@ -97,7 +255,7 @@ public class DataEntryController {
         entry.setPaymentType(req.paymentType());
 
         // save updated entry
-        service.save(entry);
+        service.update(previous, entry);
         return "OK";
     }
 
@@ -2,7 +2,10 @@ package com.server.controller;
 
 import com.server.model.ExpenseCategory;
 import com.server.service.ExpenseCategoryService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -22,10 +25,14 @@ public class ExpenseCategoryController {
         this.service = service;
     }
 
+    // answered with 304 and no database read when the client's If-None-Match is still current
     @GetMapping("/{username}")
-    public List<ExpenseCategory> getAll(@PathVariable String username) {
+    public ResponseEntity<List<ExpenseCategory>> getAll(@PathVariable String username, WebRequest request) {
+        if (request.checkNotModified("\"categories-" + service.getVersion(username) + "\"")) {
+            return null;
+        }
         // get all categories for a user
-        return service.getAll(username);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(service.getAll(username));
     }
 
     @PostMapping
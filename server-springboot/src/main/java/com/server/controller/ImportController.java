@@ -0,0 +1,92 @@
+package com.server.controller;
+
+import com.server.model.ImportJob;
+import com.server.service.ImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+// record class to hold import job request data
+// columns maps entry fields (date, type, category, note, amount, paymentType) to csv header names
+record ImportRequest(
+    String username,
+    String format,
+    Integer batchSize,
+    Map<String, String> columns,
+    String dateFormat,
+    String defaultCategory,
+    String defaultPaymentType
+) {}
+
+// it maps all routers under /api/imports to this controller
+// an import is a job: create it, upload the statement to /{id}/content, and poll /{id} for progress
+@RestController
+@RequestMapping("/api/imports")
+@CrossOrigin(origins = "*")
+public class ImportController {
+
+    private final ImportService service;
+
+    public ImportController(ImportService service) {
+        this.service = service;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> create(@RequestBody ImportRequest req) {
+        if (req.username() == null || req.username().isEmpty()) {
+            return ResponseEntity.badRequest().body("INVALID");
+        }
+
+        ImportService.Format format;
+        try {
+            format = ImportService.Format.valueOf(req.format() == null ? "CSV" : req.format().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("UNSUPPORTED_FORMAT");
+        }
+
+        try {
+            return ResponseEntity.ok(service.createJob(
+                req.username(),
+                format,
+                req.batchSize(),
+                req.columns(),
+                req.dateFormat(),
+                req.defaultCategory(),
+                req.defaultPaymentType()
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("INVALID_DATE_FORMAT");
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body("TOO_MANY_IMPORTS");
+        }
+    }
+
+    // the raw file is the request body, it is read as a stream and never buffered as a whole
+    // returns the finished job once the whole file was processed
+    @PutMapping("/{id}/content")
+    public ResponseEntity<?> upload(@PathVariable String id, HttpServletRequest request) throws IOException {
+        ImportJob job = service.getJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!job.start()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("ALREADY_STARTED");
+        }
+
+        service.run(job, request.getInputStream());
+        return ResponseEntity.ok(job);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJob> status(@PathVariable String id) {
+        ImportJob job = service.getJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+}
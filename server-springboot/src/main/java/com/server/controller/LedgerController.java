@@ -0,0 +1,75 @@
+package com.server.controller;
+
+import com.server.service.LedgerService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+// it maps all routers under /api/ledger to this controller
+// export writes a user's categories and entries as a backup file, restore reads one back in
+// format is ndjson (default) or binary, both directions stream so ledger size does not matter
+@RestController
+@RequestMapping("/api/ledger")
+@CrossOrigin(origins = "*")
+public class LedgerController {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final LedgerService service;
+
+    public LedgerController(LedgerService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/{username}/export")
+    public ResponseEntity<?> export(
+        @PathVariable String username,
+        @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        LedgerService.Format parsed = parseFormat(format);
+        if (parsed == null) {
+            return ResponseEntity.badRequest().body("UNSUPPORTED_FORMAT");
+        }
+
+        String filename = username + (parsed == LedgerService.Format.NDJSON ? ".ndjson" : ".ledger");
+        StreamingResponseBody body = out -> service.export(username, parsed, out);
+
+        return ResponseEntity.ok()
+            .contentType(parsed == LedgerService.Format.NDJSON ? NDJSON : MediaType.APPLICATION_OCTET_STREAM)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+            .body(body);
+    }
+
+    // the backup is the raw request body, entries are inserted in batches as it is read
+    // returns how many categories and entries were added
+    @PostMapping("/{username}/restore")
+    public ResponseEntity<?> restore(
+        @PathVariable String username,
+        @RequestParam(defaultValue = "ndjson") String format,
+        HttpServletRequest request
+    ) {
+        LedgerService.Format parsed = parseFormat(format);
+        if (parsed == null) {
+            return ResponseEntity.badRequest().body("UNSUPPORTED_FORMAT");
+        }
+
+        try {
+            return ResponseEntity.ok(service.restore(username, parsed, request.getInputStream()));
+        } catch (IOException e) {
+            // batches written before the bad record stay in place
+            return ResponseEntity.badRequest().body("INVALID_BACKUP");
+        }
+    }
+
+    private static LedgerService.Format parseFormat(String format) {
+        try {
+            return LedgerService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
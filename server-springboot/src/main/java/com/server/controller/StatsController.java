@@ -0,0 +1,39 @@
+package com.server.controller;
+
+import com.server.model.StatsResult;
+import com.server.service.StatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.format.DateTimeParseException;
+
+// it maps all routers under /api/stats to this controller
+// all functions are stored in service layer, this layer is just to map requests to service functions
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = "*")
+public class StatsController {
+
+    private final StatsService service;
+
+    public StatsController(StatsService service) {
+        this.service = service;
+    }
+
+    // e.g. /api/stats/johndoe?mode=MONTH&period=2025-12&income=false
+    @GetMapping("/{username}")
+    public ResponseEntity<?> getStats(
+        @PathVariable String username,
+        @RequestParam(defaultValue = "MONTH") StatsService.Mode mode,
+        @RequestParam(required = false) String period,
+        @RequestParam(defaultValue = "false") boolean income
+    ) {
+        try {
+            StatsResult result = service.getStats(username, mode, period, income);
+            return ResponseEntity.ok(result);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            // period does not match the mode (yyyy-MM for MONTH, yyyy for YEAR)
+            return ResponseEntity.badRequest().body("INVALID_PERIOD");
+        }
+    }
+}
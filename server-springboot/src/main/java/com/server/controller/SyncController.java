@@ -0,0 +1,35 @@
+package com.server.controller;
+
+import com.server.model.EntryColumns;
+import com.server.model.SyncColumnsResult;
+import com.server.model.SyncResult;
+import com.server.service.SyncService;
+import org.springframework.web.bind.annotation.*;
+
+// it maps all routers under /api/sync to this controller
+// clients send the version of their last sync and get back only what changed after it
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = "*")
+public class SyncController {
+
+    private final SyncService service;
+
+    public SyncController(SyncService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/{username}")
+    public SyncResult sync(@PathVariable String username, @RequestParam(required = false) Long since) {
+        return service.changesSince(username, since);
+    }
+
+    // same with the entries in the columnar format, picked when the Accept header asks for one of its types
+    @GetMapping(
+        value = "/{username}",
+        produces = { EntryColumns.JSON_MEDIA_TYPE, EntryColumns.SMILE_MEDIA_TYPE, EntryColumns.CBOR_MEDIA_TYPE }
+    )
+    public SyncColumnsResult syncColumns(@PathVariable String username, @RequestParam(required = false) Long since) {
+        return SyncColumnsResult.of(service.changesSince(username, since));
+    }
+}
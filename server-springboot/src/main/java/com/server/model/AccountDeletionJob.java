@@ -0,0 +1,72 @@
+package com.server.model;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// AccountDeletionJob tracks the removal of one user's account and data
+// jobs only live in memory, the collections are cleared by worker threads while clients poll, so every accessor is synchronized
+public class AccountDeletionJob {
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final String username;
+    private Status status = Status.RUNNING;
+    private final Map<String, Long> deleted = new LinkedHashMap<>();    // collection -> documents removed
+    private String message;
+    private final Instant createdAt = Instant.now();
+    private Instant finishedAt;
+
+    public AccountDeletionJob(String id, String username) {
+        this.id = id;
+        this.username = username;
+    }
+
+    public synchronized void collectionDeleted(String collection, long count) {
+        deleted.put(collection, count);
+    }
+
+    public synchronized void complete() {
+        status = Status.COMPLETED;
+        finishedAt = Instant.now();
+    }
+
+    public synchronized void fail(String reason) {
+        status = Status.FAILED;
+        message = reason;
+        finishedAt = Instant.now();
+    }
+
+    public synchronized boolean isFinished() {
+        return status != Status.RUNNING;
+    }
+
+    // Getters for all fields
+    public String getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public synchronized Status getStatus() {
+        return status;
+    }
+
+    public synchronized Map<String, Long> getDeleted() {
+        return new LinkedHashMap<>(deleted);
+    }
+
+    public synchronized String getMessage() {
+        return message;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public synchronized Instant getFinishedAt() {
+        return finishedAt;
+    }
+}
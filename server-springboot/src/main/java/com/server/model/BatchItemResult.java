@@ -0,0 +1,5 @@
+package com.server.model;
+
+// outcome of one operation of a batch request
+// index is the position of the operation in the request, id is the (generated) entry id when status is OK
+public record BatchItemResult(int index, String op, String status, String id) {}
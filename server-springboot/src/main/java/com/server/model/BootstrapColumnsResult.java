@@ -0,0 +1,27 @@
+package com.server.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// a BootstrapResult with its entries in the columnar format
+public record BootstrapColumnsResult(
+    UserProfile profile,
+    List<ExpenseCategory> categories,
+    List<Currency> currencies,
+    LocalDate from,
+    LocalDate to,
+    EntryColumns entries,
+    String nextCursor
+) {
+    public static BootstrapColumnsResult of(BootstrapResult result) {
+        return new BootstrapColumnsResult(
+            result.profile(),
+            result.categories(),
+            result.currencies(),
+            result.from(),
+            result.to(),
+            EntryColumns.of(result.entries()),
+            result.nextCursor()
+        );
+    }
+}
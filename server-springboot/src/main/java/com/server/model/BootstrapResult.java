@@ -0,0 +1,17 @@
+package com.server.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// everything a client needs to open its first screen, returned by GET /api/bootstrap
+// entries are the first page of the user's entries between from and to (both inclusive),
+// nextCursor continues them on /api/data-entries/user/{username} with the same from and to, null when they are complete
+public record BootstrapResult(
+    UserProfile profile,
+    List<ExpenseCategory> categories,
+    List<Currency> currencies,
+    LocalDate from,
+    LocalDate to,
+    List<DataEntry> entries,
+    String nextCursor
+) {}
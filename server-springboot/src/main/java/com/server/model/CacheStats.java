@@ -0,0 +1,4 @@
+package com.server.model;
+
+// hit / miss counters of one in-process cache, size is the number of entries it holds right now
+public record CacheStats(long hits, long misses, int size) {}
@@ -18,6 +18,7 @@ public class DataEntry {
     private String note;
     private int amount;
     private String paymentType; // Cash, Credit, Debit Card
+    private Long version;       // change version of the last write, see SyncService
 
     public DataEntry() {}
 
@@ -39,6 +40,20 @@ public class DataEntry {
         this.paymentType = paymentType;
     }
 
+    // copy of another entry, including its id
+    // used to remember the old values of an entry before it is updated
+    public DataEntry(DataEntry other) {
+        this.id = other.id;
+        this.username = other.username;
+        this.type = other.type;
+        this.date = other.date;
+        this.category = other.category;
+        this.note = other.note;
+        this.amount = other.amount;
+        this.paymentType = other.paymentType;
+        this.version = other.version;
+    }
+
     // Getters and Setters for all fields
     public String getId() { 
         return id;
@@ -99,4 +114,12 @@ public class DataEntry {
     public void setPaymentType(String paymentType) { 
         this.paymentType = paymentType;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
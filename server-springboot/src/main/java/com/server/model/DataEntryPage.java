@@ -0,0 +1,7 @@
+package com.server.model;
+
+import java.util.List;
+
+// one page of data entries returned by the paginated entries endpoint
+// nextCursor is null when there are no more entries in the requested range
+public record DataEntryPage(List<DataEntry> entries, String nextCursor) {}
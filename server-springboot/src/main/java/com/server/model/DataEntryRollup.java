@@ -0,0 +1,76 @@
+package com.server.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// DataEntryRollup holds the running total of a user's entries for one (type, category, granularity, bucket)
+// e.g. (johndoe, Expense, Food, MONTH, "2025-12") -> total 5400 from 3 entries
+// it is kept current by RollupService every time an entry is saved, updated or deleted
+@Document("data_entry_rollups")
+public class DataEntryRollup {
+    public enum Granularity { DAY, MONTH, YEAR }
+
+    @Id
+    private String id;
+
+    private String username;
+    private String type;        // Income or Expense, normalized
+    private String category;
+    private Granularity granularity;
+    private String bucket;      // 2025-12-04 for DAY, 2025-12 for MONTH, 2025 for YEAR
+    private long total;
+    private long count;
+
+    public DataEntryRollup() {}
+
+    public DataEntryRollup(
+        String username,
+        String type,
+        String category,
+        Granularity granularity,
+        String bucket,
+        long total,
+        long count
+    ) {
+        this.username = username;
+        this.type = type;
+        this.category = category;
+        this.granularity = granularity;
+        this.bucket = bucket;
+        this.total = total;
+        this.count = count;
+    }
+
+    // Getters for all fields, rollups are only changed through $inc updates
+    public String getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
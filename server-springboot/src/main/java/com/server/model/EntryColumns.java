@@ -0,0 +1,93 @@
+package com.server.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// a list of data entries as parallel arrays, entry i is made of the i-th value of every column
+// the row format repeats username, type, category and payment type on every entry, here the three strings are
+// dictionary coded (a list of distinct values plus one index per entry) and the username is left out,
+// the caller asked for one user's entries and knows it
+//
+// dates are days since 1970-01-01, notes are stored back to back in one string and noteEnds[i] is where note i ends,
+// note i starts where note i-1 ended; a missing date is Integer.MIN_VALUE, a missing version 0 and a missing
+// type / category / payment type the code -1
+//
+// offered as json and, with fewer bytes, as smile or cbor, see the MEDIA_TYPE constants
+public record EntryColumns(
+    int count,
+    List<String> ids,
+    long[] versions,
+    int[] dates,
+    int[] amounts,
+    String notes,
+    int[] noteEnds,
+    List<String> types,
+    int[] typeCodes,
+    List<String> categories,
+    int[] categoryCodes,
+    List<String> paymentTypes,
+    int[] paymentTypeCodes
+) {
+    public static final String JSON_MEDIA_TYPE = "application/vnd.moneymanager.entries+json";
+    public static final String SMILE_MEDIA_TYPE = "application/vnd.moneymanager.entries+smile";
+    public static final String CBOR_MEDIA_TYPE = "application/vnd.moneymanager.entries+cbor";
+
+    public static final int NO_DATE = Integer.MIN_VALUE;
+    public static final int NO_CODE = -1;
+
+    public static EntryColumns of(List<DataEntry> entries) {
+        int count = entries.size();
+        List<String> ids = new ArrayList<>(count);
+        long[] versions = new long[count];
+        int[] dates = new int[count];
+        int[] amounts = new int[count];
+        StringBuilder notes = new StringBuilder();
+        int[] noteEnds = new int[count];
+        Dictionary types = new Dictionary();
+        Dictionary categories = new Dictionary();
+        Dictionary paymentTypes = new Dictionary();
+        int[] typeCodes = new int[count];
+        int[] categoryCodes = new int[count];
+        int[] paymentTypeCodes = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            DataEntry e = entries.get(i);
+            ids.add(e.getId());
+            versions[i] = e.getVersion() == null ? 0 : e.getVersion();
+            LocalDate date = e.getDate();
+            dates[i] = date == null ? NO_DATE : (int) date.toEpochDay();
+            amounts[i] = e.getAmount();
+            if (e.getNote() != null) {
+                notes.append(e.getNote());
+            }
+            noteEnds[i] = notes.length();
+            typeCodes[i] = types.code(e.getType());
+            categoryCodes[i] = categories.code(e.getCategory());
+            paymentTypeCodes[i] = paymentTypes.code(e.getPaymentType());
+        }
+
+        return new EntryColumns(
+            count, ids, versions, dates, amounts, notes.toString(), noteEnds,
+            types.values, typeCodes, categories.values, categoryCodes, paymentTypes.values, paymentTypeCodes
+        );
+    }
+
+    // distinct values in the order they were first seen, the code of a value is its index
+    private static class Dictionary {
+        final List<String> values = new ArrayList<>();
+        final Map<String, Integer> codes = new HashMap<>();
+
+        int code(String value) {
+            if (value == null) {
+                return NO_CODE;
+            }
+            return codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+    }
+}
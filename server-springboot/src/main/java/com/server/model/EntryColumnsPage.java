@@ -0,0 +1,9 @@
+package com.server.model;
+
+// one page of data entries in the columnar format, see DataEntryPage for the row format
+public record EntryColumnsPage(EntryColumns entries, String nextCursor) {
+
+    public static EntryColumnsPage of(DataEntryPage page) {
+        return new EntryColumnsPage(EntryColumns.of(page.entries()), page.nextCursor());
+    }
+}
@@ -11,6 +11,7 @@ public class ExpenseCategory {
     private String name;
     private String icon;
     private String username;
+    private Long version;       // change version of the last write, see SyncService
 
     public ExpenseCategory() {}
 
@@ -20,6 +21,16 @@ public class ExpenseCategory {
         this.username = username;
     }
 
+    // copy of another category, including its id
+    // cached categories are shared, so updates change a copy and save that
+    public ExpenseCategory(ExpenseCategory other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.icon = other.icon;
+        this.username = other.username;
+        this.version = other.version;
+    }
+
     // Getters and Setters for all fields
     public String getId() { return id; }
 
@@ -46,4 +57,12 @@ public class ExpenseCategory {
     public void setUsername(String username) { 
         this.username = username;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
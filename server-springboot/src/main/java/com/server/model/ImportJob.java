@@ -0,0 +1,170 @@
+package com.server.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// ImportJob tracks one bank statement import: its settings, progress and row errors
+// jobs only live in memory, the rows they import are what gets stored
+// progress is updated by the import threads while clients poll it, so every accessor is synchronized
+public class ImportJob {
+    public enum Status { WAITING_FOR_DATA, RUNNING, COMPLETED, FAILED }
+
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    // one rejected row, row is the line number in the csv or the transaction number in the ofx file
+    public record RowError(long row, String message) {}
+
+    private final String id;
+    private final String username;
+    private final String format;
+    private final int batchSize;
+    private final Map<String, String> columns;    // entry field -> csv header
+    private final String dateFormat;
+    private final String defaultCategory;
+    private final String defaultPaymentType;
+
+    private Status status = Status.WAITING_FOR_DATA;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsFailed;
+    private final List<RowError> errors = new ArrayList<>();
+    private String message;
+    private final Instant createdAt = Instant.now();
+    private Instant finishedAt;
+
+    public ImportJob(
+        String id,
+        String username,
+        String format,
+        int batchSize,
+        Map<String, String> columns,
+        String dateFormat,
+        String defaultCategory,
+        String defaultPaymentType
+    ) {
+        this.id = id;
+        this.username = username;
+        this.format = format;
+        this.batchSize = batchSize;
+        this.columns = columns;
+        this.dateFormat = dateFormat;
+        this.defaultCategory = defaultCategory;
+        this.defaultPaymentType = defaultPaymentType;
+    }
+
+    // only one upload per job, returns false if data was already sent
+    public synchronized boolean start() {
+        if (status != Status.WAITING_FOR_DATA) {
+            return false;
+        }
+        status = Status.RUNNING;
+        return true;
+    }
+
+    public synchronized void rowRead() {
+        rowsRead++;
+    }
+
+    public synchronized void rowsImported(long count) {
+        rowsImported += count;
+    }
+
+    // only the first MAX_REPORTED_ERRORS are kept, the rest are just counted
+    public synchronized void rowFailed(long row, String error) {
+        rowsFailed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, error));
+        }
+    }
+
+    public synchronized void complete() {
+        status = Status.COMPLETED;
+        finishedAt = Instant.now();
+    }
+
+    public synchronized void fail(String reason) {
+        status = Status.FAILED;
+        message = reason;
+        finishedAt = Instant.now();
+    }
+
+    // fails the job if it has been waiting for its upload since before cutoff, false if it was not
+    public synchronized boolean expireIfWaitingSince(Instant cutoff) {
+        if (status != Status.WAITING_FOR_DATA || !createdAt.isBefore(cutoff)) {
+            return false;
+        }
+        fail("No data was uploaded in time");
+        return true;
+    }
+
+    public synchronized boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    // Getters for all fields
+    public String getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public Map<String, String> getColumns() {
+        return columns;
+    }
+
+    public String getDateFormat() {
+        return dateFormat;
+    }
+
+    public String getDefaultCategory() {
+        return defaultCategory;
+    }
+
+    public String getDefaultPaymentType() {
+        return defaultPaymentType;
+    }
+
+    public synchronized Status getStatus() {
+        return status;
+    }
+
+    public synchronized long getRowsRead() {
+        return rowsRead;
+    }
+
+    public synchronized long getRowsImported() {
+        return rowsImported;
+    }
+
+    public synchronized long getRowsFailed() {
+        return rowsFailed;
+    }
+
+    public synchronized List<RowError> getErrors() {
+        return new ArrayList<>(errors);
+    }
+
+    public synchronized String getMessage() {
+        return message;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public synchronized Instant getFinishedAt() {
+        return finishedAt;
+    }
+}
@@ -0,0 +1,11 @@
+package com.server.model;
+
+import java.util.Map;
+
+// aggregated stats for one user, period and income/expense flag
+// categoryTotals: category -> total amount, timeSeriesTotals: bucket (day / month / year) -> total amount
+public record StatsResult(
+    Map<String, Long> categoryTotals,
+    long totalAmount,
+    Map<String, Long> timeSeriesTotals
+) {}
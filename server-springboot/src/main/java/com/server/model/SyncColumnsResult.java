@@ -0,0 +1,24 @@
+package com.server.model;
+
+import java.util.List;
+
+// a SyncResult with its entries in the columnar format, categories are few and stay rows
+public record SyncColumnsResult(
+    long version,
+    boolean full,
+    EntryColumns entries,
+    List<ExpenseCategory> categories,
+    List<String> deletedEntries,
+    List<String> deletedCategories
+) {
+    public static SyncColumnsResult of(SyncResult result) {
+        return new SyncColumnsResult(
+            result.version(),
+            result.full(),
+            EntryColumns.of(result.entries()),
+            result.categories(),
+            result.deletedEntries(),
+            result.deletedCategories()
+        );
+    }
+}
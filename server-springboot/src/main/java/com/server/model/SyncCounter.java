@@ -0,0 +1,44 @@
+package com.server.model;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+// SyncCounter holds the change version of one user
+// every write to the user's entries or categories takes the next version, so "what changed since N" is a range query
+// purgedThrough is the newest version whose tombstone was compacted away, clients older than that need a full sync
+// pending are the reservations whose writes are still running, see SyncService
+@Document("sync_counters")
+public class SyncCounter {
+    // count versions handed out at "at", their documents may not be stored yet until done
+    // the entry holds no version, its range follows from the version and the entries after it, see SyncService
+    public record Reservation(ObjectId token, long count, Instant at, boolean done) {}
+
+    @Id
+    private String username;
+    private long version;
+    private long purgedThrough;
+    private List<Reservation> pending;
+
+    public SyncCounter() {}
+
+    // Getters for all fields
+    public String getUsername() {
+        return username;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getPurgedThrough() {
+        return purgedThrough;
+    }
+
+    public List<Reservation> getPending() {
+        return pending == null ? List.of() : pending;
+    }
+}
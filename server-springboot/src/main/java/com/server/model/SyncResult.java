@@ -0,0 +1,15 @@
+package com.server.model;
+
+import java.util.List;
+
+// answer to a sync request
+// version is what the client sends as since next time, full means the lists are the complete state
+// and the client must replace what it has instead of merging
+public record SyncResult(
+    long version,
+    boolean full,
+    List<DataEntry> entries,
+    List<ExpenseCategory> categories,
+    List<String> deletedEntries,
+    List<String> deletedCategories
+) {}
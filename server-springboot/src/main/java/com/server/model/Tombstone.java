@@ -0,0 +1,57 @@
+package com.server.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Tombstone records that an entry or category was deleted, so syncing clients can drop it too
+// tombstones are purged after a retention period by the compaction job
+@Document("tombstones")
+public class Tombstone {
+    public static final String ENTRY = "entry";
+    public static final String CATEGORY = "category";
+
+    @Id
+    private String id;
+    private String username;
+    private String kind;        // entry or category
+    private String docId;       // id of the deleted document
+    private long version;
+    private Instant deletedAt;
+
+    public Tombstone() {}
+
+    public Tombstone(String username, String kind, String docId, long version) {
+        this.username = username;
+        this.kind = kind;
+        this.docId = docId;
+        this.version = version;
+        this.deletedAt = Instant.now();
+    }
+
+    // Getters for all fields
+    public String getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public String getDocId() {
+        return docId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+}
@@ -0,0 +1,9 @@
+package com.server.model;
+
+// what a client may see of a User, without the password hash and salt
+public record UserProfile(String id, String email, String username, String firstName, String lastName) {
+
+    public static UserProfile of(User user) {
+        return new UserProfile(user.getId(), user.getEmail(), user.getUsername(), user.getFirstName(), user.getLastName());
+    }
+}
@@ -0,0 +1,95 @@
+package com.server.parser;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// streaming csv reader (RFC 4180: quoted fields, "" escapes, newlines inside quotes)
+// it only ever holds the current record, so it can read files of any size
+public class CsvParser implements Closeable {
+    private final BufferedReader in;
+    private final char delimiter;
+    private long lineNumber = 0;       // lines consumed so far
+    private long recordStartLine = 0;  // line the last returned record started on
+    private boolean firstRecord = true;
+
+    public CsvParser(Reader reader, char delimiter) {
+        this.in = reader instanceof BufferedReader b ? b : new BufferedReader(reader);
+        this.delimiter = delimiter;
+    }
+
+    // line the last returned record started on (1 based)
+    public long getLineNumber() {
+        return recordStartLine;
+    }
+
+    // next record, or null at the end of the input
+    public List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean readAnything = false;
+        recordStartLine = lineNumber + 1;
+
+        int c;
+        while ((c = in.read()) != -1) {
+            readAnything = true;
+            char ch = (char) c;
+
+            if (inQuotes) {
+                if (ch == '"') {
+                    // "" inside quotes is an escaped quote, anything else closes the quoted section
+                    in.mark(1);
+                    int next = in.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        if (next != -1) {
+                            in.reset();
+                        }
+                    }
+                } else {
+                    if (ch == '\n') {
+                        lineNumber++;
+                    }
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                inQuotes = true;
+            } else if (ch == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                lineNumber++;
+                fields.add(field.toString());
+                return finish(fields);
+            } else if (ch != '\r') {
+                field.append(ch);
+            }
+        }
+
+        if (!readAnything) {
+            return null;
+        }
+        fields.add(field.toString());
+        return finish(fields);
+    }
+
+    private List<String> finish(List<String> fields) {
+        // excel and many bank exports start the file with a byte order mark
+        if (firstRecord && !fields.isEmpty() && fields.get(0).startsWith("\uFEFF")) {
+            fields.set(0, fields.get(0).substring(1));
+        }
+        firstRecord = false;
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,96 @@
+package com.server.parser;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+// streaming reader for OFX bank statements, returns one <STMTTRN> transaction at a time
+// works for both the old SGML form (no closing tags) and the XML form
+public class OfxParser implements Closeable {
+
+    // raw values of one statement transaction, null when the tag was missing
+    public record Transaction(String type, String datePosted, String amount, String name, String memo) {}
+
+    private final BufferedReader in;
+    private int pending = -1; // '<' already consumed while reading a value
+
+    public OfxParser(Reader reader) {
+        this.in = reader instanceof BufferedReader b ? b : new BufferedReader(reader);
+    }
+
+    // next transaction, or null at the end of the input
+    public Transaction next() throws IOException {
+        boolean inTransaction = false;
+        String type = null, datePosted = null, amount = null, name = null, memo = null;
+
+        String tag;
+        while ((tag = nextTag()) != null) {
+            String upper = tag.toUpperCase();
+
+            if (upper.equals("STMTTRN")) {
+                inTransaction = true;
+                type = datePosted = amount = name = memo = null;
+                continue;
+            }
+            if (upper.equals("/STMTTRN")) {
+                if (inTransaction) {
+                    return new Transaction(type, datePosted, amount, name, memo);
+                }
+                continue;
+            }
+            if (!inTransaction || upper.startsWith("/")) {
+                continue;
+            }
+
+            String value = readValue();
+            switch (upper) {
+                case "TRNTYPE" -> type = value;
+                case "DTPOSTED" -> datePosted = value;
+                case "TRNAMT" -> amount = value;
+                case "NAME" -> name = value;
+                case "MEMO" -> memo = value;
+                default -> { /* other tags are not mapped */ }
+            }
+        }
+        return null;
+    }
+
+    // name of the next tag, skipping any text before it
+    private String nextTag() throws IOException {
+        int c = pending != -1 ? pending : in.read();
+        pending = -1;
+        while (c != -1 && c != '<') {
+            c = in.read();
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        StringBuilder tag = new StringBuilder();
+        while ((c = in.read()) != -1 && c != '>') {
+            tag.append((char) c);
+        }
+        return tag.toString().trim();
+    }
+
+    // text after a tag up to the next tag
+    private String readValue() throws IOException {
+        StringBuilder value = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '<') {
+                pending = c;
+                break;
+            }
+            value.append((char) c);
+        }
+        String trimmed = value.toString().trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -4,23 +4,50 @@ import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
 
+import com.server.model.CacheStats;
+
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 public class JWTUtil {
 
+    private static final int MAX_CACHED_TOKENS = 10000;
+
     private final Key key;
     private final long expiry;
+    // built once, jjwt parsers are immutable and safe to share between request threads
+    private final JwtParser parser;
     private static final String[] WHITELIST = {
         "/auth/login",
         "/auth/register",
         "/currency"
     };
 
+    // tokens that already passed signature verification, keyed by a SHA-256 digest of the token
+    // so the map never holds the bearer tokens themselves; each one is kept until it expires
+    // access ordered LinkedHashMap drops the least recently used token once the cache is full
+    private final Map<String, VerifiedToken> verified = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+            return size() > MAX_CACHED_TOKENS;
+        }
+    };
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
     public JWTUtil(io.github.cdimascio.dotenv.Dotenv dotenv) {
         this.key = Keys.hmacShaKeyFor(dotenv.get("JWT_SECRET").getBytes());
         this.expiry = Long.parseLong(dotenv.get("JWT_EXPIRY_MINUTES")) * 60 * 1000;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
     public String generateToken(String username) {
@@ -32,21 +59,63 @@ public class JWTUtil {
             .compact();
     }
 
-    public boolean validate(String token) {
+    // checks signature and expiry and returns the token's claims in one parse, null if the token is not valid
+    // a token seen before is answered from the cache without verifying the signature again
+    public VerifiedToken verify(String token) {
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
+
+        synchronized (verified) {
+            VerifiedToken cached = verified.get(digest);
+            if (cached != null) {
+                if (cached.expiresAt() > now) {
+                    hits.incrementAndGet();
+                    return cached;
+                }
+                verified.remove(digest);
+            }
+        }
+        misses.incrementAndGet();
+
+        Claims claims;
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parse(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            rejected.incrementAndGet();
+            return null;
+        }
+
+        // every token we issue expires, one without expiry is accepted but never cached
+        Date expiration = claims.getExpiration();
+        VerifiedToken result = new VerifiedToken(
+            claims.getSubject(),
+            expiration == null ? Long.MAX_VALUE : expiration.getTime()
+        );
+        if (expiration != null) {
+            synchronized (verified) {
+                verified.put(digest, result);
+            }
+        }
+        return result;
+    }
+
+    public CacheStats getCacheStats() {
+        synchronized (verified) {
+            return new CacheStats(hits.get(), misses.get(), verified.size());
         }
     }
 
-    public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-            .setSigningKey(key)
-            .build()
-            .parseClaimsJws(token)
-            .getBody()
-            .getSubject();
+    // tokens that failed verification (bad signature, expired, malformed)
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JVM ships SHA-256
+        }
     }
 }
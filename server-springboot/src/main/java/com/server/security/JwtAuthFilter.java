@@ -1,6 +1,7 @@
 package com.server.security;
 
 import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -17,6 +18,7 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JWTUtil jwtUtil;
+    private final ServletContext apiContext;
 
     // All paths that do NOT require a JWT token
     private static final String[] WHITELIST = {
@@ -25,8 +27,15 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         "/currency"
     };
 
-    public JwtAuthFilter(JWTUtil jwtUtil) {
+    public JwtAuthFilter(JWTUtil jwtUtil, ServletContext apiContext) {
         this.jwtUtil = jwtUtil;
+        this.apiContext = apiContext;
+    }
+
+    // the actuator (health, prometheus) runs on its own server at management.server.port, which only listens on
+    // localhost, so it is open there and never on the api port; served on the api port it needs a token like the rest
+    static boolean onManagementServer(HttpServletRequest req, ServletContext apiContext) {
+        return req.getServletContext() != apiContext;
     }
 
     @Override
@@ -36,6 +45,11 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         FilterChain chain
     ) throws ServletException, IOException {
 
+        if (onManagementServer(req, apiContext)) {
+            chain.doFilter(req, res);
+            return;
+        }
+
         String path = req.getRequestURI();
 
         // Allow whitelisted endpoints without JWT
@@ -56,14 +70,14 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         String token = header.substring(7);
 
-        // Validate token
-        if (!jwtUtil.validate(token)) {
+        // Validate token and extract username from it, in one parse
+        VerifiedToken verified = jwtUtil.verify(token);
+        if (verified == null) {
             res.setStatus(401);
             return;
         }
 
-        // Extract username from token
-        String username = jwtUtil.extractUsername(token);
+        String username = verified.username();
 
         // Put user into Spring Security Context
         UsernamePasswordAuthenticationToken auth =
@@ -1,5 +1,7 @@
 package com.server.security;
 
+import jakarta.servlet.ServletContext;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,9 +13,11 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtFilter;
+    private final ServletContext apiContext;
 
-    public SecurityConfig(JwtAuthFilter jwtFilter) {
+    public SecurityConfig(JwtAuthFilter jwtFilter, ServletContext apiContext) {
         this.jwtFilter = jwtFilter;
+        this.apiContext = apiContext;
     }
 
     @Bean
@@ -25,6 +29,7 @@ public class SecurityConfig {
             .requestMatchers("/auth/**").permitAll()   // login, register allowed
             .requestMatchers("/currency").permitAll()
             .requestMatchers("/currency/**").permitAll()
+            .requestMatchers(req -> JwtAuthFilter.onManagementServer(req, apiContext)).permitAll()   // probes and metrics scrapes
             .anyRequest().authenticated()              // everything else requires JWT
                 
         );
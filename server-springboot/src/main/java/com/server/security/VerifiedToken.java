@@ -0,0 +1,4 @@
+package com.server.security;
+
+// the parts of a verified JWT the server uses, expiresAt is epoch millis
+public record VerifiedToken(String username, long expiresAt) {}
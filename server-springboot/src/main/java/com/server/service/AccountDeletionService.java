@@ -0,0 +1,136 @@
+package com.server.service;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.server.model.AccountDeletionJob;
+import com.server.model.DataEntry;
+import com.server.model.DataEntryRollup;
+import com.server.model.ExpenseCategory;
+import com.server.model.Tombstone;
+import com.server.model.User;
+import com.server.repository.UserRepo;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// deletes a user's account in the background
+// each collection is cleared with one server side deleteMany on username, all collections at the same time,
+// nothing is loaded into the application so the cost does not depend on how many entries the user has
+// the user document goes last, so the username cannot be registered again while old data is still being removed
+@Service
+public class AccountDeletionService {
+    private static final int MAX_JOBS = 200;
+
+    // every collection holding per user documents
+    private static final List<Class<?>> USER_COLLECTIONS = List.of(
+        DataEntry.class,
+        ExpenseCategory.class,
+        DataEntryRollup.class,
+        Tombstone.class
+    );
+
+    private final MongoTemplate mongoTemplate;
+    private final UserRepo userRepo;
+    private final StatsService statsService;
+    private final SyncService syncService;
+    private final ExpenseCategoryService expenseCategoryService;
+    // the collection deletes run on virtual threads when the server runs on them, on the pool below otherwise
+    private final Executor deletes;
+
+    private final Map<String, AccountDeletionJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, AccountDeletionJob> running = new ConcurrentHashMap<>();    // username -> job
+    private final ExecutorService workers = Executors.newFixedThreadPool(USER_COLLECTIONS.size(), r -> {
+        Thread t = new Thread(r, "account-delete");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public AccountDeletionService(
+        MongoTemplate mongoTemplate,
+        UserRepo userRepo,
+        StatsService statsService,
+        SyncService syncService,
+        ExpenseCategoryService expenseCategoryService,
+        FanOut fanOut
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.userRepo = userRepo;
+        this.statsService = statsService;
+        this.syncService = syncService;
+        this.expenseCategoryService = expenseCategoryService;
+        this.deletes = fanOut.executor(workers);
+    }
+
+    // starts deleting and returns right away, null if the user does not exist
+    // asking again while a deletion is running returns the running job
+    public AccountDeletionJob start(String username) {
+        User user = userRepo.findByUsername(username);
+        if (user == null) {
+            return null;
+        }
+
+        AccountDeletionJob job = new AccountDeletionJob(UUID.randomUUID().toString(), username);
+        AccountDeletionJob existing = running.putIfAbsent(username, job);
+        if (existing != null) {
+            return existing;
+        }
+
+        evictFinishedJobs();
+        jobs.put(job.getId(), job);
+
+        Query byUser = new Query(Criteria.where("username").is(username));
+        CompletableFuture<?>[] collections = USER_COLLECTIONS.stream()
+            .map(type -> CompletableFuture.runAsync(() -> {
+                long count = mongoTemplate.remove(byUser, type).getDeletedCount();
+                job.collectionDeleted(mongoTemplate.getCollectionName(type), count);
+            }, deletes))
+            .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(collections)
+            .thenRunAsync(() -> {
+                syncService.forgetHistory(username);
+                long count = mongoTemplate.remove(byUser, User.class).getDeletedCount();
+                job.collectionDeleted(mongoTemplate.getCollectionName(User.class), count);
+            }, deletes)
+            .whenComplete((ignored, error) -> {
+                statsService.invalidate(username);
+                expenseCategoryService.invalidate(username);
+                if (error == null) {
+                    job.complete();
+                } else {
+                    // the user document is still there, so deleting again retries the remaining collections
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    job.fail(cause.getMessage());
+                }
+                running.remove(username, job);
+            });
+
+        return job;
+    }
+
+    public AccountDeletionJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    private void evictFinishedJobs() {
+        if (jobs.size() < MAX_JOBS) {
+            return;
+        }
+        jobs.values().stream()
+            .filter(AccountDeletionJob::isFinished)
+            .sorted((a, b) -> a.getCreatedAt().compareTo(b.getCreatedAt()))
+            .limit(jobs.size() - MAX_JOBS + 1)
+            .map(AccountDeletionJob::getId)
+            .toList()
+            .forEach(jobs::remove);
+    }
+}
@@ -1,10 +1,10 @@
 package com.server.service;
 
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import com.server.repository.UserRepo;
 import com.server.security.JWTUtil;
-import com.server.model.DataEntry;
 import com.server.model.ExpenseCategory;
 import com.server.model.User;
 
@@ -13,7 +13,6 @@ import java.util.Base64;
 import java.util.List;
 import java.security.MessageDigest;
 
-import com.server.repository.DataEntryRepo;
 import com.server.repository.ExpenseCategoryRepo;
 
 import io.github.cdimascio.dotenv.Dotenv;
@@ -25,21 +24,24 @@ public class AuthService {
     // loading all required repositories, to interact with database
     private final UserRepo userRepo;
     private final ExpenseCategoryRepo expenseCategoryRepo; // expense category are specific to user
-    private final DataEntryRepo dataEntryRepo;
     private final String pepper;
     private final JWTUtil jwtUtil;
+    private final SyncService syncService;
+    private final ExpenseCategoryService expenseCategoryService;
 
     public AuthService(
         UserRepo userRepo,
         ExpenseCategoryRepo expenseCategoryRepo,
-        DataEntryRepo dataEntryRepo,
         Dotenv dotenv,
-        JWTUtil jwtUtil
+        JWTUtil jwtUtil,
+        SyncService syncService,
+        ExpenseCategoryService expenseCategoryService
     ) { 
         this.userRepo = userRepo; 
         this.expenseCategoryRepo = expenseCategoryRepo;
-        this.dataEntryRepo = dataEntryRepo;
         this.jwtUtil = jwtUtil;
+        this.syncService = syncService;
+        this.expenseCategoryService = expenseCategoryService;
         this.pepper = dotenv.get("SECURITY_PEPPER");
     }
 
@@ -54,12 +56,12 @@ public class AuthService {
     }
 
     // Hash password + salt using SHA-256
-    private String hashPassword(String password, String salt) throws Exception {
+    // package private for the benchmarks in src/bench
+    String hashPassword(String password, String salt) throws Exception {
         // Combine password and salt, then hash
         MessageDigest md = MessageDigest.getInstance("SHA-256");
         // Convert combined string to bytes and update the message digest
         String combined = password + salt + pepper;
-        System.out.println("Hashing password with pepper string: " + pepper);
         md.update(combined.getBytes());
         // Compute the final hash value
         return Base64.getEncoder().encodeToString(md.digest());
@@ -72,19 +74,10 @@ public class AuthService {
         String username,
         String password
     ) {
-        if (
-            userRepo.findByEmail(email) != null ||
-            userRepo.findByUsername(username) != null
-        ) {
-            return false; // user already exists
-        }
-
         try {
             String salt = generateSalt();
             String hash = hashPassword(password, salt);
             User newUser = new User(email, username, firstName, lastName, hash, salt);
-            // save user to database
-            userRepo.save(newUser);
 
             // for eac huser we will create some default expense categories
             List<ExpenseCategory> defaults = List.of(
@@ -119,10 +112,29 @@ public class AuthService {
                 "💸", username
                 )
             );
-            // save all default categories to database for the user created
-            expenseCategoryRepo.saveAll(defaults);
+            // every step needs the one before it, so register runs them in order on the request thread in both modes
+            // inserting the user is the existence check, the unique username and email indexes reject a taken one
+            // the category versions are only reserved once the user exists, an open reservation holds back the
+            // committed version of its user, so a failed register must not leave one on the other user's counter
+            userRepo.insert(newUser);
+
+            long first = syncService.reserve(username, defaults.size());
+            long version = first;
+            for (ExpenseCategory category : defaults) {
+                category.setVersion(version++);
+            }
+            try {
+                expenseCategoryRepo.insert(defaults);
+            } catch (DuplicateKeyException e) {
+                // categories left behind by an interrupted account deletion of the same name, the user keeps those
+            } finally {
+                expenseCategoryService.invalidate(username);
+                syncService.release(username, first);
+            }
 
             return true;
+        } catch (DuplicateKeyException e) {
+            return false; // user already exists
         } catch (Exception e) {
             e.printStackTrace();
             return false;
@@ -145,34 +157,4 @@ public class AuthService {
         }
     }
 
-
-    // Delete user account and all associated data
-    public boolean deleteAccount(String username) {
-        // check if user exists
-        User u = userRepo.findByUsername(username);
-        
-        if (u == null) {
-            return false; // user not found
-        }
-
-        // delte all categories and data entries associated with the user
-        List<ExpenseCategory> cats = expenseCategoryRepo.findByUsername(username);
-
-        if (cats != null && !cats.isEmpty()) {
-            expenseCategoryRepo.deleteAll(cats);
-        }
-
-        // delte all transactions associated with the user
-        List<DataEntry> entries = dataEntryRepo.findByUsername(username);
-
-        if (entries != null && !entries.isEmpty()) {
-            dataEntryRepo.deleteAll(entries);
-        }
-
-        // delte user from database
-        userRepo.delete(u);
-
-        return true;
-    }
-
 }
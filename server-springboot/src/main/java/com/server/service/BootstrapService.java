@@ -0,0 +1,96 @@
+package com.server.service;
+
+import org.springframework.stereotype.Service;
+
+import com.server.model.BootstrapResult;
+import com.server.model.Currency;
+import com.server.model.DataEntryPage;
+import com.server.model.ExpenseCategory;
+import com.server.model.User;
+import com.server.model.UserProfile;
+import com.server.repository.UserRepo;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// builds the one response a client needs to start a session
+// the profile, categories, currencies and the entries of the window do not depend on each other, so they are read
+// at the same time and the request takes as long as the slowest of them instead of their sum
+@Service
+public class BootstrapService {
+    // four reads per request, enough for a few logins at the same time
+    private static final int POOL_SIZE = 16;
+
+    private final UserRepo userRepo;
+    private final ExpenseCategoryService expenseCategoryService;
+    private final CurrencyService currencyService;
+    private final DataEntryService dataEntryService;
+    // the reads run on virtual threads when the server runs on them, on the pool below otherwise
+    private final Executor reads;
+
+    private final ExecutorService workers = Executors.newFixedThreadPool(POOL_SIZE, r -> {
+        Thread t = new Thread(r, "bootstrap-read");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public BootstrapService(
+        UserRepo userRepo,
+        ExpenseCategoryService expenseCategoryService,
+        CurrencyService currencyService,
+        DataEntryService dataEntryService,
+        FanOut fanOut
+    ) {
+        this.userRepo = userRepo;
+        this.expenseCategoryService = expenseCategoryService;
+        this.currencyService = currencyService;
+        this.dataEntryService = dataEntryService;
+        this.reads = fanOut.executor(workers);
+    }
+
+    // the window a client gets when it does not ask for one: the previous and the current month
+    public static LocalDate defaultFrom() {
+        return YearMonth.now().minusMonths(1).atDay(1);
+    }
+
+    public static LocalDate defaultTo() {
+        return YearMonth.now().atEndOfMonth();
+    }
+
+    // null if the user does not exist (anymore), a failed read is thrown
+    public BootstrapResult load(String username, LocalDate from, LocalDate to) {
+        CompletableFuture<User> user = CompletableFuture.supplyAsync(() -> userRepo.findByUsername(username), reads);
+        CompletableFuture<List<ExpenseCategory>> categories = CompletableFuture.supplyAsync(() -> expenseCategoryService.getAll(username), reads);
+        CompletableFuture<List<Currency>> currencies = CompletableFuture.supplyAsync(currencyService::getAll, reads);
+        CompletableFuture<DataEntryPage> entries = CompletableFuture.supplyAsync(
+            () -> dataEntryService.getPageByUsername(username, from, to, DataEntryService.MAX_PAGE_SIZE, null),
+            reads
+        );
+
+        try {
+            CompletableFuture.allOf(user, categories, currencies, entries).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+
+        if (user.join() == null) {
+            return null;
+        }
+        DataEntryPage page = entries.join();
+        return new BootstrapResult(
+            UserProfile.of(user.join()),
+            categories.join(),
+            currencies.join(),
+            from,
+            to,
+            page.entries(),
+            page.nextCursor()
+        );
+    }
+}
@@ -1,31 +1,64 @@
 package com.server.service;
 
+import com.server.model.CacheStats;
 import com.server.model.Currency;
 import com.server.repository.CurrencyRepo;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 // Service layer for Currency operations
+// all currencies are held in one immutable registry snapshot, reads never touch the database
+// every write reloads the snapshot and swaps it in, readers keep using the old one until then
 @Service
 public class CurrencyService {
+    // currencies in database order plus a code -> currency lookup, never modified after it is built
+    private record Registry(List<Currency> currencies, Map<String, Currency> byCode, long version) {}
+
     private final CurrencyRepo currencyRepo;
 
+    // currencies are shared by all users and only written through this service, so an in-memory version is enough
+    // the start time is part of it, so versions from before a restart never match again
+    private final long startedAt = System.currentTimeMillis();
+    private volatile Registry registry;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
     public CurrencyService(CurrencyRepo currencyRepo) {
         this.currencyRepo = currencyRepo;
     }
 
+    // the returned list is shared and must not be modified
     public List<Currency> getAll() {
-        return currencyRepo.findAll();
+        return registry().currencies();
+    }
+
+    // lookup by code, ignoring case, null if there is no such currency
+    public Currency getByCode(String code) {
+        return code == null ? null : registry().byCode().get(code.toUpperCase());
+    }
+
+    public String getVersion() {
+        return startedAt + "-" + registry().version();
     }
 
+    public CacheStats getCacheStats() {
+        Registry current = registry;
+        return new CacheStats(hits.get(), misses.get(), current == null ? 0 : current.currencies().size());
+    }
+
+    // the unique code index rejects a code that is already taken, ignoring case
     public boolean create(String name, String code, String symbol) {
-        if (currencyRepo.findByCodeIgnoreCase(code) != null) {
+        try {
+            currencyRepo.insert(new Currency(name, code, symbol));
+        } catch (DuplicateKeyException e) {
             return false; // currency with same code exists
         }
-
-        // create and save new currency
-        currencyRepo.save(new Currency(name, code, symbol));
+        reload();
         return true;
     }
 
@@ -35,13 +68,14 @@ public class CurrencyService {
         }
         // delete currency by id
         currencyRepo.deleteById(id);
+        reload();
         return true;
     }
 
     public boolean update(String id, String name, String code, String symbol) {
         // find existing currency by id
         Currency existingCurrency = currencyRepo.findById(id).orElse(null);
-        
+
         if (existingCurrency == null) {
             return false; // currency with given id does not exist
         }
@@ -50,10 +84,42 @@ public class CurrencyService {
         existingCurrency.setName(name);
         existingCurrency.setCode(code);
         existingCurrency.setSymbol(symbol);
-        
-        // save updated currency
 
-        currencyRepo.save(existingCurrency);
+        // save updated currency
+        try {
+            currencyRepo.save(existingCurrency);
+        } catch (DuplicateKeyException e) {
+            return false; // changed to the code of another currency
+        }
+        reload();
         return true;
     }
+
+    private Registry registry() {
+        Registry current = registry;
+        if (current != null) {
+            hits.incrementAndGet();
+            return current;
+        }
+        return reload();
+    }
+
+    // build a new snapshot from the database and publish it
+    // synchronized so concurrent writes publish their snapshots in order and the version only goes up
+    private synchronized Registry reload() {
+        misses.incrementAndGet();
+
+        List<Currency> currencies = List.copyOf(currencyRepo.findAll());
+        Map<String, Currency> byCode = new HashMap<>();
+        for (Currency c : currencies) {
+            if (c.getCode() != null) {
+                byCode.putIfAbsent(c.getCode().toUpperCase(), c);
+            }
+        }
+
+        long version = registry == null ? 0 : registry.version() + 1;
+        Registry next = new Registry(currencies, Map.copyOf(byCode), version);
+        registry = next;
+        return next;
+    }
 }
@@ -1,28 +1,108 @@
 package com.server.service;
 
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import com.server.repository.DataEntryRepo;
 import com.server.model.DataEntry;
+import com.server.model.BatchItemResult;
+import com.server.model.DataEntryPage;
+import com.server.model.Tombstone;
+import com.mongodb.bulk.BulkWriteError;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class DataEntryService {
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    public enum BatchKind { CREATE, UPDATE, DELETE }
+
+    // one validated operation of a batch request
+    // id is required for UPDATE / DELETE, values are required for CREATE / UPDATE
+    public record BatchOp(int index, BatchKind kind, String id, DataEntry values) {}
+
     private final DataEntryRepo dataEntryRepo;
+    private final MongoTemplate mongoTemplate;
+    private final StatsService statsService;
+    private final RollupService rollupService;
+    private final SyncService syncService;
 
-    public DataEntryService(DataEntryRepo dataEntryRepo) {
+    public DataEntryService(
+        DataEntryRepo dataEntryRepo,
+        MongoTemplate mongoTemplate,
+        StatsService statsService,
+        RollupService rollupService,
+        SyncService syncService
+    ) {
         this.dataEntryRepo = dataEntryRepo;
+        this.mongoTemplate = mongoTemplate;
+        this.statsService = statsService;
+        this.rollupService = rollupService;
+        this.syncService = syncService;
     }
 
     public DataEntry save(DataEntry entry) {
-        // save data entry to database
-        return dataEntryRepo.save(entry);
+        // if the entry already exists we need its stored values to reverse them in the rollups
+        DataEntry previous = entry.getId() == null ? null : dataEntryRepo.findById(entry.getId()).orElse(null);
+        return update(previous, entry);
+    }
+
+    // save an entry whose values before the change are already known (previous is null for a new entry)
+    public DataEntry update(DataEntry previous, DataEntry entry) {
+        String username = entry.getUsername();
+        long version = syncService.nextVersion(username);
+        entry.setVersion(version);
+        DataEntry saved;
+        try {
+            // save data entry to database
+            saved = dataEntryRepo.save(entry);
+        } finally {
+            syncService.release(username, version);
+        }
+        rollupService.applyChange(previous, saved);
+        // cached stats of this user are now stale
+        statsService.invalidate(saved.getUsername());
+        if (previous != null && !saved.getUsername().equals(previous.getUsername())) {
+            statsService.invalidate(previous.getUsername());
+            // for the old owner the entry is gone
+            tombstone(previous.getUsername(), saved.getId());
+        }
+        return saved;
     }
 
-    public List<DataEntry> getAll() {
-        // get all data entries from database
-        return dataEntryRepo.findAll();
+    private void tombstone(String username, String id) {
+        long version = syncService.nextVersion(username);
+        try {
+            syncService.tombstone(username, Tombstone.ENTRY, id, version);
+        } finally {
+            syncService.release(username, version);
+        }
+    }
+
+    // every data entry through a mongo cursor, the caller must close the stream
+    public Stream<DataEntry> streamAll() {
+        return mongoTemplate.stream(new Query(), DataEntry.class);
     }
 
     public Optional<DataEntry> getById(String id) {
@@ -32,11 +112,21 @@ public class DataEntryService {
     }
 
     public void delete(String id) {
-        if (!dataEntryRepo.existsById(id)) {
+        DataEntry existing = dataEntryRepo.findById(id).orElse(null);
+        if (existing == null) {
             return; // entry with given id does not exist
         }
         // delete data entry by id
         dataEntryRepo.deleteById(id);
+        tombstone(existing.getUsername(), id);
+        rollupService.remove(existing);
+        statsService.invalidate(existing.getUsername());
+    }
+
+    // changes whenever any entry or category of the user is written, used as the ETag of the user's data
+    // the committed version, see ExpenseCategoryService.getVersion
+    public long getVersion(String username) {
+        return syncService.committedVersion(username);
     }
 
     public List<DataEntry> getByUsername(String username) {
@@ -44,4 +134,226 @@ public class DataEntryService {
         // get data entries by username
         return dataEntryRepo.findByUsername(username);
     }
+
+    // get one page of a user's entries between from and to (both inclusive, either may be null)
+    // entries are ordered by (date, id) and the cursor is the position of the last entry of the previous page,
+    // so every page is an index range scan on (username, date, _id) no matter how deep the user pages
+    public DataEntryPage getPageByUsername(
+        String username,
+        LocalDate from,
+        LocalDate to,
+        Integer limit,
+        String cursor
+    ) {
+        int pageSize = (limit == null || limit <= 0) ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+
+        Criteria criteria = Criteria.where("username").is(username);
+
+        if (from != null && to != null) {
+            criteria = criteria.and("date").gte(from).lte(to);
+        } else if (from != null) {
+            criteria = criteria.and("date").gte(from);
+        } else if (to != null) {
+            criteria = criteria.and("date").lte(to);
+        }
+
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] position = decodeCursor(cursor);
+            LocalDate lastDate = LocalDate.parse(position[0]);
+            // an ObjectId, not its hex string: mongo orders by type first, so $gt with a string matches no ObjectId
+            ObjectId lastId = new ObjectId(position[1]);
+
+            // strictly after (lastDate, lastId) in (date, id) order
+            criteria = criteria.andOperator(new Criteria().orOperator(
+                Criteria.where("date").gt(lastDate),
+                new Criteria().andOperator(
+                    Criteria.where("date").is(lastDate),
+                    Criteria.where("id").gt(lastId)
+                )
+            ));
+        }
+
+        // fetch one extra entry to know whether there is a next page without a separate count query
+        Query query = new Query(criteria)
+            .with(Sort.by(Sort.Order.asc("date"), Sort.Order.asc("id")))
+            .limit(pageSize + 1);
+
+        List<DataEntry> entries = mongoTemplate.find(query, DataEntry.class);
+
+        String nextCursor = null;
+        if (entries.size() > pageSize) {
+            entries = entries.subList(0, pageSize);
+            DataEntry last = entries.get(pageSize - 1);
+            nextCursor = encodeCursor(last.getDate(), last.getId());
+        }
+
+        return new DataEntryPage(entries, nextCursor);
+    }
+
+    // run many creates / updates / deletes as one unordered bulk write
+    // every operation gets its own result, a failing one does not stop the others
+    public List<BatchItemResult> applyBatch(List<BatchOp> ops) {
+        List<BatchItemResult> results = new ArrayList<>();
+
+        // current values of every entry that is updated or deleted, loaded with one query
+        Set<String> targetIds = new HashSet<>();
+        for (BatchOp op : ops) {
+            if (op.kind() != BatchKind.CREATE) {
+                targetIds.add(op.id());
+            }
+        }
+        Map<String, DataEntry> existing = new HashMap<>();
+        for (DataEntry e : dataEntryRepo.findAllById(targetIds)) {
+            existing.put(e.getId(), e);
+        }
+
+        // one change version per operation, reserved per user in a single call each
+        Map<String, Integer> versionCounts = new HashMap<>();
+        for (BatchOp op : ops) {
+            DataEntry owner = op.kind() == BatchKind.CREATE ? op.values() : existing.get(op.id());
+            if (owner != null) {
+                versionCounts.merge(owner.getUsername(), 1, Integer::sum);
+            }
+        }
+        SyncService.Versions versions = syncService.reserve(versionCounts);
+        try {
+            return writeBatch(ops, results, existing, versions);
+        } finally {
+            // after the tombstones are stored too
+            syncService.release(versions);
+        }
+    }
+
+    private List<BatchItemResult> writeBatch(
+        List<BatchOp> ops,
+        List<BatchItemResult> results,
+        Map<String, DataEntry> existing,
+        SyncService.Versions versions
+    ) {
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DataEntry.class);
+        List<BatchOp> queued = new ArrayList<>();
+        List<String> queuedIds = new ArrayList<>();
+        List<RollupService.Change> queuedChanges = new ArrayList<>();
+        Set<String> touchedIds = new HashSet<>();
+        Map<Integer, Tombstone> tombstones = new HashMap<>();    // queue index -> tombstone of a delete
+
+        for (BatchOp op : ops) {
+            String opName = op.kind().name();
+
+            if (op.kind() == BatchKind.CREATE) {
+                // generate the id here so we can return it without reading the documents back
+                ObjectId newId = new ObjectId();
+                op.values().setVersion(versions.next(op.values().getUsername()));
+                Document doc = new Document();
+                mongoTemplate.getConverter().write(op.values(), doc);
+                doc.put("_id", newId);
+                bulk.insert(doc);
+
+                queued.add(op);
+                queuedIds.add(newId.toHexString());
+                queuedChanges.add(new RollupService.Change(null, op.values()));
+                continue;
+            }
+
+            DataEntry previous = existing.get(op.id());
+            if (previous == null) {
+                results.add(new BatchItemResult(op.index(), opName, "NOT_FOUND", op.id()));
+                continue;
+            }
+            // unordered bulk writes may run in any order, so one entry can only be touched once per batch
+            if (!touchedIds.add(op.id())) {
+                results.add(new BatchItemResult(op.index(), opName, "DUPLICATE", op.id()));
+                continue;
+            }
+
+            Query byId = new Query(Criteria.where("id").is(op.id()));
+            long version = versions.next(previous.getUsername());
+
+            if (op.kind() == BatchKind.UPDATE) {
+                DataEntry updated = new DataEntry(previous);
+                updated.setType(op.values().getType());
+                updated.setDate(op.values().getDate());
+                updated.setCategory(op.values().getCategory());
+                updated.setNote(op.values().getNote());
+                updated.setAmount(op.values().getAmount());
+                updated.setPaymentType(op.values().getPaymentType());
+                updated.setVersion(version);
+
+                bulk.updateOne(byId, new Update()
+                    .set("type", updated.getType())
+                    .set("date", updated.getDate())
+                    .set("category", updated.getCategory())
+                    .set("note", updated.getNote())
+                    .set("amount", updated.getAmount())
+                    .set("paymentType", updated.getPaymentType())
+                    .set("version", version));
+
+                queuedChanges.add(new RollupService.Change(previous, updated));
+            } else {
+                bulk.remove(byId);
+                queuedChanges.add(new RollupService.Change(previous, null));
+                tombstones.put(queued.size(), new Tombstone(previous.getUsername(), Tombstone.ENTRY, op.id(), version));
+            }
+            queued.add(op);
+            queuedIds.add(op.id());
+        }
+
+        // indexes (in queue order) of the writes mongo rejected
+        Set<Integer> failed = new HashSet<>();
+        if (!queued.isEmpty()) {
+            try {
+                bulk.execute();
+            } catch (BulkOperationException e) {
+                for (BulkWriteError error : e.getErrors()) {
+                    failed.add(error.getIndex());
+                }
+            }
+        }
+
+        List<RollupService.Change> applied = new ArrayList<>();
+        List<Tombstone> appliedTombstones = new ArrayList<>();
+        Set<String> usernames = new HashSet<>();
+
+        for (int i = 0; i < queued.size(); i++) {
+            BatchOp op = queued.get(i);
+            if (failed.contains(i)) {
+                results.add(new BatchItemResult(op.index(), op.kind().name(), "ERROR", null));
+                continue;
+            }
+            results.add(new BatchItemResult(op.index(), op.kind().name(), "OK", queuedIds.get(i)));
+
+            RollupService.Change change = queuedChanges.get(i);
+            applied.add(change);
+            if (tombstones.containsKey(i)) {
+                appliedTombstones.add(tombstones.get(i));
+            }
+            if (change.previous() != null) usernames.add(change.previous().getUsername());
+            if (change.updated() != null) usernames.add(change.updated().getUsername());
+        }
+
+        rollupService.applyChanges(applied);
+        syncService.tombstones(appliedTombstones);
+        for (String username : usernames) {
+            statsService.invalidate(username);
+        }
+
+        results.sort(Comparator.comparingInt(BatchItemResult::index));
+        return results;
+    }
+
+    // cursor is opaque to clients, it is just "date|id" in url safe base64
+    private String encodeCursor(LocalDate date, String id) {
+        String raw = date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] parts = raw.split("\\|", 2);
+        if (parts.length != 2 || parts[1].isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return parts;
+    }
 }
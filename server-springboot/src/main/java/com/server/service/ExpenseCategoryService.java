@@ -1,59 +1,165 @@
 package com.server.service;
 
+import com.server.model.CacheStats;
 import com.server.model.ExpenseCategory;
+import com.server.model.Tombstone;
 import com.server.repository.ExpenseCategoryRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 
+// categories are read on every screen but change rarely, so each user's list is kept in memory
+// the cache is LRU bounded and entries expire after a TTL, every write through this service drops the user's entry,
+// other services that write categories (register, restore, account deletion) call invalidate
 @Service
 public class ExpenseCategoryService {
+    private static final int MAX_CACHED_USERS = 10000;
+
+    private record CachedCategories(List<ExpenseCategory> categories, long loadedAt) {}
+
     private final ExpenseCategoryRepo expenseCategoryRepo;
+    private final SyncService syncService;
+    private final long ttlMillis;
+
+    // access ordered LinkedHashMap drops the least recently used user once the cache is full
+    private final Map<String, CachedCategories> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedCategories> eldest) {
+            return size() > MAX_CACHED_USERS;
+        }
+    };
 
-    public ExpenseCategoryService(ExpenseCategoryRepo repo) {
+    // bumped on every invalidation, a list loaded while a write happened is not cached
+    private long cacheVersion = 0;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ExpenseCategoryService(
+        ExpenseCategoryRepo repo,
+        SyncService syncService,
+        @Value("${cache.categories.ttl-seconds:300}") long ttlSeconds
+    ) {
         this.expenseCategoryRepo = repo;
+        this.syncService = syncService;
+        this.ttlMillis = ttlSeconds * 1000;
     }
 
+    // get all categories for a user, the returned list is shared and must not be modified
     public List<ExpenseCategory> getAll(String username) {
-        // get all categories for a user
-        return expenseCategoryRepo.findByUsername(username);
+        long versionBefore;
+        synchronized (cache) {
+            CachedCategories cached = cache.get(username);
+            if (cached != null && System.currentTimeMillis() - cached.loadedAt() < ttlMillis) {
+                hits.incrementAndGet();
+                return cached.categories();
+            }
+            versionBefore = cacheVersion;
+        }
+        misses.incrementAndGet();
+
+        List<ExpenseCategory> loaded = List.copyOf(expenseCategoryRepo.findByUsername(username));
+
+        synchronized (cache) {
+            if (cacheVersion == versionBefore) {
+                cache.put(username, new CachedCategories(loaded, System.currentTimeMillis()));
+            }
+        }
+        return loaded;
+    }
+
+    // drop the user's cached list, called after anything writes their categories
+    public void invalidate(String username) {
+        synchronized (cache) {
+            cacheVersion++;
+            cache.remove(username);
+        }
     }
 
+    public CacheStats getCacheStats() {
+        synchronized (cache) {
+            return new CacheStats(hits.get(), misses.get(), cache.size());
+        }
+    }
+
+    // changes whenever any entry or category of the user is written, used as the ETag of the user's data
+    // the committed version, a write still running has not moved it yet, so its body cannot be tagged as current
+    // read it before the categories, a body read afterwards is never older than its tag
+    public long getVersion(String username) {
+        return syncService.committedVersion(username);
+    }
+
+    // the (username, name) unique index rejects a name the user already has, ignoring case
     public boolean create(String name, String icon, String username) {
-        if (expenseCategoryRepo.findByNameIgnoreCaseAndUsername(name, username) != null) {
+        ExpenseCategory category = new ExpenseCategory(name, icon, username);
+        long version = syncService.nextVersion(username);
+        category.setVersion(version);
+        try {
+            expenseCategoryRepo.insert(category);
+        } catch (DuplicateKeyException e) {
             return false; // category with same name exists for user
+        } finally {
+            // before the version is committed, a GET tagged with it must not be served the cached list
+            invalidate(username);
+            syncService.release(username, version);
         }
-        // create and save new category
-        expenseCategoryRepo.save(new ExpenseCategory(name, icon, username));
         return true;
     }
 
     public boolean delete(String id) {
-        if (!expenseCategoryRepo.existsById(id)) {
+        ExpenseCategory existing = expenseCategoryRepo.findById(id).orElse(null);
+        if (existing == null) {
             return false; // category with given id does not exist
         }
-        // delete category by id s
-        expenseCategoryRepo.deleteById(id);
+        long version = syncService.nextVersion(existing.getUsername());
+        try {
+            // delete category by id s
+            expenseCategoryRepo.deleteById(id);
+            syncService.tombstone(existing.getUsername(), Tombstone.CATEGORY, id, version);
+        } finally {
+            invalidate(existing.getUsername());
+            syncService.release(existing.getUsername(), version);
+        }
         return true;
     }
 
     public boolean update(String id, String name, String icon, String username) {
-        // Only update categories owned by user
-        ExpenseCategory existing = expenseCategoryRepo.findById(id).orElse(null);
-        if (existing == null){
+        // Only update categories owned by user, looking in the user's own list also
+        // prevents editing categories owned by another user
+        ExpenseCategory cached = find(username, c -> c.getId().equals(id));
+        if (cached == null){
              return false;
         }
 
-        // Prevent editing categories owned by another user
-        if (!existing.getUsername().equals(username)){
-             return false;
-        }
-        // update fields
+        // update fields on a copy, the cached object is shared with readers
+        ExpenseCategory existing = new ExpenseCategory(cached);
         existing.setName(name);
         existing.setIcon(icon);
+        long version = syncService.nextVersion(username);
+        existing.setVersion(version);
 
-        expenseCategoryRepo.save(existing);
+        try {
+            expenseCategoryRepo.save(existing);
+        } catch (DuplicateKeyException e) {
+            return false; // renamed to a name another category of the user has
+        } finally {
+            invalidate(username);
+            syncService.release(username, version);
+        }
         return true;
     }
 
+    private ExpenseCategory find(String username, Predicate<ExpenseCategory> match) {
+        for (ExpenseCategory c : getAll(username)) {
+            if (match.test(c)) {
+                return c;
+            }
+        }
+        return null;
+    }
 }
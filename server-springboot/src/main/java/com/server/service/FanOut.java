@@ -0,0 +1,44 @@
+package com.server.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// runs independent blocking calls side by side on virtual threads when the server runs on them
+// spring.threads.virtual.enabled=true moves tomcat's request handling to virtual threads (JDK 21+ only, spring boot
+// ignores it on older JDKs), and with it the background work of the services that take their executor from here
+// in platform thread mode that work stays on the services' own pools, so nothing changes for the default setup
+@Component
+public class FanOut {
+    private final ExecutorService virtualThreads;    // null in platform thread mode
+
+    public FanOut(@Value("${spring.threads.virtual.enabled:false}") boolean virtual) {
+        this.virtualThreads = virtual ? newVirtualThreadPerTaskExecutor() : null;
+    }
+
+    // where work that is always run in the background should go: a virtual thread per task, or the given pool
+    public Executor executor(Executor platformThreads) {
+        return virtualThreads != null ? virtualThreads : platformThreads;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (virtualThreads != null) {
+            virtualThreads.shutdownNow();
+        }
+    }
+
+    // compiled for Java 17, so the JDK 21 factory is looked up at runtime
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            System.out.println("Virtual threads need JDK 21+, running service calls on platform threads");
+            return null;
+        }
+    }
+}
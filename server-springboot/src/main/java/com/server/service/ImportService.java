@@ -0,0 +1,426 @@
+package com.server.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.server.model.DataEntry;
+import com.server.model.ImportJob;
+import com.server.parser.CsvParser;
+import com.server.parser.OfxParser;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// imports bank statements (csv or ofx) into data entries
+// the upload is parsed straight from the request stream on the request thread and handed to a writer thread in batches
+// the queue between them is bounded, so when mongo is slower than the parser the parser simply waits (backpressure)
+// at most (QUEUE_CAPACITY + 2) batches are in memory at once, whatever the size of the file
+@Service
+public class ImportService {
+    public enum Format { CSV, OFX }
+
+    public static final int MAX_BATCH_SIZE = 5000;
+    private static final int QUEUE_CAPACITY = 2;
+    private static final int MAX_JOBS = 200;
+    // a job nobody uploads to fails after this, and a user can only have a few of them at once
+    private static final Duration WAITING_TIMEOUT = Duration.ofMinutes(10);
+    private static final int MAX_WAITING_JOBS_PER_USER = 5;
+    private static final List<ImportRow> END_OF_INPUT = new ArrayList<>();
+
+    // entry fields a csv column can be mapped to
+    private static final List<String> FIELDS = List.of("date", "type", "category", "note", "amount", "paymentType");
+
+    private record ImportRow(long row, DataEntry entry) {}
+
+    private final MongoTemplate mongoTemplate;
+    private final RollupService rollupService;
+    private final StatsService statsService;
+    private final SyncService syncService;
+    private final int defaultBatchSize;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService writers = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "import-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ImportService(
+        MongoTemplate mongoTemplate,
+        RollupService rollupService,
+        StatsService statsService,
+        SyncService syncService,
+        @Value("${import.batch-size:500}") int defaultBatchSize
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.rollupService = rollupService;
+        this.statsService = statsService;
+        this.syncService = syncService;
+        this.defaultBatchSize = defaultBatchSize;
+    }
+
+    public ImportJob createJob(
+        String username,
+        Format format,
+        Integer batchSize,
+        Map<String, String> columns,
+        String dateFormat,
+        String defaultCategory,
+        String defaultPaymentType
+    ) {
+        int size = (batchSize == null || batchSize <= 0) ? defaultBatchSize : Math.min(batchSize, MAX_BATCH_SIZE);
+        String pattern = dateFormat == null || dateFormat.isEmpty() ? "yyyy-MM-dd" : dateFormat;
+        DateTimeFormatter.ofPattern(pattern); // fail now on a bad pattern, not halfway through the upload
+
+        // unmapped fields use a csv header with the field's own name
+        Map<String, String> mapping = new HashMap<>();
+        for (String field : FIELDS) {
+            String header = columns == null ? null : columns.get(field);
+            mapping.put(field, header == null || header.isEmpty() ? field : header);
+        }
+
+        ImportJob job = new ImportJob(
+            UUID.randomUUID().toString(),
+            username,
+            format.name(),
+            size,
+            mapping,
+            pattern,
+            defaultCategory == null || defaultCategory.isEmpty() ? "Other" : defaultCategory,
+            defaultPaymentType == null || defaultPaymentType.isEmpty() ? "Bank Transfer" : defaultPaymentType
+        );
+
+        synchronized (jobs) {
+            expireWaitingJobs();
+            evictFinishedJobs();
+            long waiting = jobs.values().stream()
+                .filter(j -> j.getUsername().equals(username) && j.getStatus() == ImportJob.Status.WAITING_FOR_DATA)
+                .count();
+            // every job left is running or waiting, taking another one would let the registry grow without bound
+            if (waiting >= MAX_WAITING_JOBS_PER_USER || jobs.size() >= MAX_JOBS) {
+                throw new IllegalStateException("Too many import jobs");
+            }
+            jobs.put(job.getId(), job);
+        }
+        return job;
+    }
+
+    public ImportJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    // parse the uploaded statement and insert its rows, returns when the whole stream was processed
+    // the job can be polled from another request while this runs
+    public void run(ImportJob job, InputStream body) {
+        BlockingQueue<List<ImportRow>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        Future<?> writer = writers.submit(() -> writeLoop(job, queue));
+
+        try (Reader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern(job.getDateFormat(), Locale.ENGLISH);
+
+            List<ImportRow> batch = new ArrayList<>(job.getBatchSize());
+            Iterator<ImportRow> rows = Format.valueOf(job.getFormat()) == Format.CSV
+                ? csvRows(job, new CsvParser(reader, ','), dateFormat)
+                : ofxRows(job, new OfxParser(reader));
+
+            while (rows.hasNext()) {
+                ImportRow row = rows.next();
+                if (row == null) {
+                    continue; // row was rejected and recorded as an error
+                }
+                batch.add(row);
+                if (batch.size() == job.getBatchSize()) {
+                    hand(queue, batch, writer);
+                    batch = new ArrayList<>(job.getBatchSize());
+                }
+            }
+            if (!batch.isEmpty()) {
+                hand(queue, batch, writer);
+            }
+            hand(queue, END_OF_INPUT, writer);
+
+            writer.get();
+            job.complete();
+        } catch (Exception e) {
+            writer.cancel(true);
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            job.fail(cause.getClass().getSimpleName() + ": " + cause.getMessage());
+        } finally {
+            statsService.invalidate(job.getUsername());
+        }
+    }
+
+    // blocks while the writer is busy, gives up if the writer died
+    private void hand(BlockingQueue<List<ImportRow>> queue, List<ImportRow> batch, Future<?> writer) throws Exception {
+        while (!queue.offer(batch, 1, TimeUnit.SECONDS)) {
+            if (writer.isDone()) {
+                writer.get(); // rethrows the writer's failure
+                throw new IllegalStateException("Import writer stopped");
+            }
+        }
+    }
+
+    private Void writeLoop(ImportJob job, BlockingQueue<List<ImportRow>> queue) throws InterruptedException {
+        while (true) {
+            List<ImportRow> batch = queue.take();
+            if (batch == END_OF_INPUT) {
+                return null;
+            }
+            insert(job, batch);
+        }
+    }
+
+    // one unordered bulk insert per batch, rows mongo rejects are reported and the rest are kept
+    private void insert(ImportJob job, List<ImportRow> batch) {
+        List<DataEntry> entries = new ArrayList<>(batch.size());
+        long first = syncService.reserve(job.getUsername(), batch.size());
+        long version = first;
+        for (ImportRow row : batch) {
+            row.entry().setVersion(version++);
+            entries.add(row.entry());
+        }
+
+        Set<Integer> failed = new HashSet<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DataEntry.class)
+                .insert(entries)
+                .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failed.add(error.getIndex());
+                job.rowFailed(batch.get(error.getIndex()).row(), error.getMessage());
+            }
+        } finally {
+            syncService.release(job.getUsername(), first);
+        }
+
+        List<RollupService.Change> changes = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (!failed.contains(i)) {
+                changes.add(new RollupService.Change(null, batch.get(i).entry()));
+            }
+        }
+        rollupService.applyChanges(changes);
+        job.rowsImported(changes.size());
+    }
+
+    // csv rows mapped through the job's column mapping, the first record must be the header
+    private Iterator<ImportRow> csvRows(ImportJob job, CsvParser parser, DateTimeFormatter dateFormat) throws Exception {
+        List<String> header = parser.next();
+        if (header == null) {
+            throw new IllegalArgumentException("Empty file");
+        }
+
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            index.put(header.get(i).trim().toLowerCase(), i);
+        }
+
+        Map<String, Integer> fieldColumn = new HashMap<>();
+        for (Map.Entry<String, String> m : job.getColumns().entrySet()) {
+            Integer column = index.get(m.getValue().trim().toLowerCase());
+            if (column != null) {
+                fieldColumn.put(m.getKey(), column);
+            }
+        }
+        if (!fieldColumn.containsKey("date") || !fieldColumn.containsKey("amount")) {
+            throw new IllegalArgumentException("CSV needs a date and an amount column, header was " + header);
+        }
+
+        return new RowIterator() {
+            @Override
+            protected ImportRow read() throws Exception {
+                List<String> record = parser.next();
+                while (record != null && record.size() == 1 && record.get(0).isBlank()) {
+                    record = parser.next(); // blank line
+                }
+                if (record == null) {
+                    return END;
+                }
+
+                long line = parser.getLineNumber();
+                job.rowRead();
+                try {
+                    return new ImportRow(line, toEntry(
+                        job,
+                        LocalDate.parse(column(record, fieldColumn, "date"), dateFormat),
+                        column(record, fieldColumn, "amount"),
+                        column(record, fieldColumn, "type"),
+                        column(record, fieldColumn, "category"),
+                        column(record, fieldColumn, "note"),
+                        column(record, fieldColumn, "paymentType")
+                    ));
+                } catch (DateTimeParseException | IllegalArgumentException | ArithmeticException e) {
+                    job.rowFailed(line, e.getMessage());
+                    return null;
+                }
+            }
+        };
+    }
+
+    // ofx transactions: the sign of TRNAMT decides income / expense, NAME and MEMO become the note
+    private Iterator<ImportRow> ofxRows(ImportJob job, OfxParser parser) {
+        DateTimeFormatter ofxDate = DateTimeFormatter.BASIC_ISO_DATE;
+
+        return new RowIterator() {
+            private long number = 0;
+
+            @Override
+            protected ImportRow read() throws Exception {
+                OfxParser.Transaction t = parser.next();
+                if (t == null) {
+                    return END;
+                }
+
+                number++;
+                job.rowRead();
+                try {
+                    if (t.datePosted() == null || t.datePosted().length() < 8) {
+                        throw new IllegalArgumentException("Missing DTPOSTED");
+                    }
+                    String note = t.name() == null ? t.memo()
+                        : t.memo() == null ? t.name()
+                        : t.name() + " - " + t.memo();
+
+                    return new ImportRow(number, toEntry(
+                        job,
+                        LocalDate.parse(t.datePosted().substring(0, 8), ofxDate),
+                        t.amount(),
+                        null,
+                        null,
+                        note,
+                        null
+                    ));
+                } catch (DateTimeParseException | IllegalArgumentException | ArithmeticException e) {
+                    job.rowFailed(number, e.getMessage());
+                    return null;
+                }
+            }
+        };
+    }
+
+    // same rules as POST /api/data-entries: amount must be > 0 after the sign is turned into a type
+    private DataEntry toEntry(
+        ImportJob job,
+        LocalDate date,
+        String amountText,
+        String type,
+        String category,
+        String note,
+        String paymentType
+    ) {
+        if (amountText == null || amountText.isBlank()) {
+            throw new IllegalArgumentException("Missing amount");
+        }
+        BigDecimal amount = new BigDecimal(amountText.replaceAll("[\\s,]", ""));
+
+        String resolvedType;
+        if (type != null && !type.isBlank()) {
+            resolvedType = type.trim().equalsIgnoreCase("income") ? "Income"
+                : type.trim().equalsIgnoreCase("expense") ? "Expense"
+                : type.trim();
+        } else {
+            resolvedType = amount.signum() < 0 ? "Expense" : "Income";
+        }
+
+        int value = amount.abs().setScale(0, RoundingMode.HALF_UP).intValueExact();
+        if (value <= 0) {
+            throw new IllegalArgumentException("Amount must be greater than 0");
+        }
+
+        return new DataEntry(
+            job.getUsername(),
+            resolvedType,
+            date,
+            category == null || category.isBlank() ? job.getDefaultCategory() : category.trim(),
+            note == null ? "" : note.trim(),
+            value,
+            paymentType == null || paymentType.isBlank() ? job.getDefaultPaymentType() : paymentType.trim()
+        );
+    }
+
+    private static String column(List<String> record, Map<String, Integer> fieldColumn, String field) {
+        Integer i = fieldColumn.get(field);
+        return (i == null || i >= record.size()) ? null : record.get(i);
+    }
+
+    // jobs created without an upload following them fail, which makes them finished and evictable
+    private void expireWaitingJobs() {
+        Instant cutoff = Instant.now().minus(WAITING_TIMEOUT);
+        jobs.values().forEach(job -> job.expireIfWaitingSince(cutoff));
+    }
+
+    // keep the job registry bounded, forget the oldest finished jobs first
+    private void evictFinishedJobs() {
+        if (jobs.size() < MAX_JOBS) {
+            return;
+        }
+        jobs.values().stream()
+            .filter(ImportJob::isFinished)
+            .sorted((a, b) -> a.getCreatedAt().compareTo(b.getCreatedAt()))
+            .limit(jobs.size() - MAX_JOBS + 1)
+            .map(ImportJob::getId)
+            .toList()
+            .forEach(jobs::remove);
+    }
+
+    // pulls rows lazily from a parser, read() returns END when the input is exhausted and null for a rejected row
+    private abstract static class RowIterator implements Iterator<ImportRow> {
+        protected static final ImportRow END = new ImportRow(-1, null);
+        private ImportRow next;
+        private boolean fetched;
+
+        protected abstract ImportRow read() throws Exception;
+
+        @Override
+        public boolean hasNext() {
+            if (!fetched) {
+                try {
+                    next = read();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+                fetched = true;
+            }
+            return next != END;
+        }
+
+        @Override
+        public ImportRow next() {
+            hasNext();
+            fetched = false;
+            return next;
+        }
+    }
+}
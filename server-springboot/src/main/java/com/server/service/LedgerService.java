@@ -0,0 +1,376 @@
+package com.server.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.ErrorCategory;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.server.model.DataEntry;
+import com.server.model.ExpenseCategory;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// backup and restore of a user's ledger (categories + entries)
+// exports read mongo through a cursor and write each document straight to the response,
+// restores read the upload record by record and insert in batches, so memory use does not depend on ledger size
+//
+// NDJSON: one json object per line, {"kind":"category","data":{...}} or {"kind":"entry","data":{...}}
+// BINARY: "MMLG" + version byte, then records of [kind byte][int length][payload], ended by kind 0
+@Service
+public class LedgerService {
+    public enum Format { NDJSON, BINARY }
+
+    // result of a restore
+    public record RestoreResult(long categories, long entries) {}
+
+    private static final byte[] MAGIC = { 'M', 'M', 'L', 'G' };
+    private static final byte VERSION = 2;
+    private static final int MAX_RECORD_LENGTH = 16 << 20;  // a mongo document is at most 16 MB, so is any record
+    private static final byte KIND_END = 0;
+    private static final byte KIND_CATEGORY = 1;
+    private static final byte KIND_ENTRY = 2;
+    private static final int RESTORE_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final RollupService rollupService;
+    private final StatsService statsService;
+    private final SyncService syncService;
+    private final ExpenseCategoryService expenseCategoryService;
+
+    public LedgerService(
+        MongoTemplate mongoTemplate,
+        ObjectMapper objectMapper,
+        RollupService rollupService,
+        StatsService statsService,
+        SyncService syncService,
+        ExpenseCategoryService expenseCategoryService
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.rollupService = rollupService;
+        this.statsService = statsService;
+        this.syncService = syncService;
+        this.expenseCategoryService = expenseCategoryService;
+    }
+
+    public void export(String username, Format format, OutputStream out) throws IOException {
+        Query byUser = new Query(Criteria.where("username").is(username));
+
+        try (
+            Stream<ExpenseCategory> categories = mongoTemplate.stream(byUser, ExpenseCategory.class);
+            Stream<DataEntry> entries = mongoTemplate.stream(byUser, DataEntry.class)
+        ) {
+            if (format == Format.NDJSON) {
+                exportNdjson(categories.iterator(), entries.iterator(), out);
+            } else {
+                exportBinary(categories.iterator(), entries.iterator(), out);
+            }
+        }
+    }
+
+    // insert everything in the backup under the given username, ids are always newly generated
+    // categories the user already has (same name, ignoring case) are skipped
+    public RestoreResult restore(String username, Format format, InputStream in) throws IOException {
+        Set<String> existingCategories = new HashSet<>();
+        for (ExpenseCategory c : expenseCategoryService.getAll(username)) {
+            existingCategories.add(c.getName().toLowerCase());
+        }
+
+        RestoreWriter writer = new RestoreWriter(username, existingCategories);
+        try {
+            if (format == Format.NDJSON) {
+                restoreNdjson(in, writer);
+            } else {
+                restoreBinary(in, writer);
+            }
+            writer.flush();
+        } finally {
+            statsService.invalidate(username);
+            expenseCategoryService.invalidate(username);
+        }
+        return new RestoreResult(writer.categoriesWritten, writer.entriesWritten);
+    }
+
+    private void exportNdjson(Iterator<ExpenseCategory> categories, Iterator<DataEntry> entries, OutputStream out) throws IOException {
+        // the generator must not close the response stream, spring does that
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        json.setRootValueSeparator(null);
+
+        while (categories.hasNext()) {
+            writeLine(json, "category", categories.next());
+        }
+        while (entries.hasNext()) {
+            writeLine(json, "entry", entries.next());
+        }
+        json.flush();
+    }
+
+    private void writeLine(JsonGenerator json, String kind, Object data) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("kind", kind);
+        json.writeFieldName("data");
+        objectMapper.writeValue(json, data);
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private void exportBinary(Iterator<ExpenseCategory> categories, Iterator<DataEntry> entries, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.write(MAGIC);
+        data.writeByte(VERSION);
+
+        // payloads are built in a reused buffer so the length prefix can be written first
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(256);
+        DataOutputStream p = new DataOutputStream(payload);
+
+        while (categories.hasNext()) {
+            ExpenseCategory c = categories.next();
+            payload.reset();
+            writeString(p, c.getName());
+            writeString(p, c.getIcon());
+            writeRecord(data, KIND_CATEGORY, payload);
+        }
+        while (entries.hasNext()) {
+            DataEntry e = entries.next();
+            payload.reset();
+            writeString(p, e.getType());
+            p.writeInt(e.getDate() == null ? Integer.MIN_VALUE : (int) e.getDate().toEpochDay());
+            writeString(p, e.getCategory());
+            writeString(p, e.getNote());
+            p.writeInt(e.getAmount());
+            writeString(p, e.getPaymentType());
+            writeRecord(data, KIND_ENTRY, payload);
+        }
+
+        data.writeByte(KIND_END);
+        data.flush();
+    }
+
+    private void writeRecord(DataOutputStream out, byte kind, ByteArrayOutputStream payload) throws IOException {
+        out.writeByte(kind);
+        out.writeInt(payload.size());
+        payload.writeTo(out);
+    }
+
+    // strings are a presence flag followed by their utf-8 length and bytes
+    // writeUTF is limited to 64 KB, a longer note would fail the export halfway
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private String readString(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        // the string is inside a record that was read whole, so it cannot be longer than what is left of it
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw new IOException("Backup is corrupt");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void restoreNdjson(InputStream in, RestoreWriter writer) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node = objectMapper.readTree(line);
+            String kind = node.path("kind").asText();
+            JsonNode data = node.get("data");
+            if (data == null) {
+                continue;
+            }
+
+            if (kind.equals("category")) {
+                writer.add(objectMapper.treeToValue(data, ExpenseCategory.class));
+            } else if (kind.equals("entry")) {
+                writer.add(objectMapper.treeToValue(data, DataEntry.class));
+            }
+            // unknown kinds come from newer exports, skip them
+        }
+    }
+
+    private void restoreBinary(InputStream in, RestoreWriter writer) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+
+        byte[] magic = new byte[MAGIC.length];
+        data.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a ledger backup");
+        }
+        byte version = data.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported backup version " + version);
+        }
+
+        while (true) {
+            byte kind;
+            try {
+                kind = data.readByte();
+            } catch (EOFException e) {
+                throw new IOException("Backup is truncated");
+            }
+            if (kind == KIND_END) {
+                return;
+            }
+
+            // the length comes from the upload, checked before anything is allocated for it
+            int length = data.readInt();
+            if (length < 0 || length > MAX_RECORD_LENGTH) {
+                throw new IOException("Backup is corrupt");
+            }
+            byte[] payload = new byte[length];
+            data.readFully(payload);
+            DataInputStream p = new DataInputStream(new ByteArrayInputStream(payload));
+
+            if (kind == KIND_CATEGORY) {
+                writer.add(new ExpenseCategory(readString(p), readString(p), null));
+            } else if (kind == KIND_ENTRY) {
+                String type = readString(p);
+                int epochDay = p.readInt();
+                String category = readString(p);
+                String note = readString(p);
+                int amount = p.readInt();
+                String paymentType = readString(p);
+                LocalDate date = epochDay == Integer.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay);
+                writer.add(new DataEntry(null, type, date, category, note, amount, paymentType));
+            }
+            // unknown kinds come from newer exports, the length prefix lets us skip them
+        }
+    }
+
+    // collects restored documents and writes them in bulk batches
+    private class RestoreWriter {
+        private final String username;
+        private final Set<String> existingCategories;
+        private final List<ExpenseCategory> categories = new ArrayList<>();
+        private final List<DataEntry> entries = new ArrayList<>();
+        private long categoriesWritten;
+        private long entriesWritten;
+
+        RestoreWriter(String username, Set<String> existingCategories) {
+            this.username = username;
+            this.existingCategories = existingCategories;
+        }
+
+        void add(ExpenseCategory category) {
+            if (category.getName() == null || !existingCategories.add(category.getName().toLowerCase())) {
+                return;
+            }
+            categories.add(new ExpenseCategory(category.getName(), category.getIcon(), username));
+            if (categories.size() == RESTORE_BATCH_SIZE) {
+                flushCategories();
+            }
+        }
+
+        void add(DataEntry entry) {
+            entries.add(new DataEntry(
+                username,
+                entry.getType(),
+                entry.getDate(),
+                entry.getCategory(),
+                entry.getNote(),
+                entry.getAmount(),
+                entry.getPaymentType()
+            ));
+            if (entries.size() == RESTORE_BATCH_SIZE) {
+                flushEntries();
+            }
+        }
+
+        void flush() {
+            flushCategories();
+            flushEntries();
+        }
+
+        private void flushCategories() {
+            if (categories.isEmpty()) {
+                return;
+            }
+            long first = syncService.reserve(username, categories.size());
+            long version = first;
+            for (ExpenseCategory c : categories) {
+                c.setVersion(version++);
+            }
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ExpenseCategory.class).insert(categories).execute();
+                categoriesWritten += categories.size();
+            } catch (BulkOperationException e) {
+                // a category created while the restore ran, the unique (username, name) index kept the user's one
+                // and the unordered insert still wrote the rest
+                if (!e.getErrors().stream().allMatch(error -> error.getCategory() == ErrorCategory.DUPLICATE_KEY)) {
+                    throw e;
+                }
+                categoriesWritten += e.getResult().getInsertedCount();
+            } finally {
+                // the cached list goes before the versions are committed, the categories ETag is built from them
+                expenseCategoryService.invalidate(username);
+                syncService.release(username, first);
+            }
+            categories.clear();
+        }
+
+        private void flushEntries() {
+            if (entries.isEmpty()) {
+                return;
+            }
+            long first = syncService.reserve(username, entries.size());
+            long version = first;
+            for (DataEntry e : entries) {
+                e.setVersion(version++);
+            }
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DataEntry.class).insert(entries).execute();
+            } finally {
+                syncService.release(username, first);
+            }
+
+            List<RollupService.Change> changes = new ArrayList<>(entries.size());
+            for (DataEntry e : entries) {
+                changes.add(new RollupService.Change(null, e));
+            }
+            rollupService.applyChanges(changes);
+
+            entriesWritten += entries.size();
+            entries.clear();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.server.service;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.StringOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.server.model.DataEntry;
+import com.server.model.DataEntryRollup;
+import com.server.model.DataEntryRollup.Granularity;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+// keeps the data_entry_rollups collection in sync with data_entries
+// every entry contributes to one DAY, one MONTH and one YEAR rollup of its (username, type, category)
+@Service
+public class RollupService {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public RollupService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // entry was created
+    public void add(DataEntry entry) {
+        applyChange(null, entry);
+    }
+
+    // entry was deleted
+    public void remove(DataEntry entry) {
+        applyChange(entry, null);
+    }
+
+    // one entry going from previous to updated, either may be null for create / delete
+    public record Change(DataEntry previous, DataEntry updated) {}
+
+    // entry changed from previous to updated, either may be null for create / delete
+    // the reversing delta of previous and the delta of updated go to mongo in one unordered bulk write
+    public void applyChange(DataEntry previous, DataEntry updated) {
+        applyChanges(List.of(new Change(previous, updated)));
+    }
+
+    // deltas of many entries at once, still a single bulk write
+    public void applyChanges(List<Change> changes) {
+        List<Upsert> upserts = upserts(changes);
+        if (upserts.isEmpty()) {
+            return;
+        }
+
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DataEntryRollup.class);
+        for (Upsert upsert : upserts) {
+            ops.upsert(upsert.query(), upsert.update());
+        }
+        ops.execute();
+    }
+
+    // one $inc upsert of a rollup document
+    public record Upsert(Query query, Update update) {}
+
+    // the upserts that move the rollups by the given changes, also used by the reactive variant of the server
+    public static List<Upsert> upserts(List<Change> changes) {
+        List<Upsert> upserts = new ArrayList<>();
+        for (Change change : changes) {
+            DataEntry previous = change.previous();
+            DataEntry updated = change.updated();
+            if (previous != null && updated != null && sameContribution(previous, updated)) {
+                continue; // only note / payment type changed, totals are unaffected
+            }
+            addDelta(upserts, previous, -1);
+            addDelta(upserts, updated, 1);
+        }
+        return upserts;
+    }
+
+    // drop every rollup and recompute them from data_entries
+    // entries written while this runs may be counted twice or not at all, run it while the app is idle
+    public long rebuild() {
+        mongoTemplate.remove(new Query(), DataEntryRollup.class);
+
+        long written = 0;
+        written += rebuild(Granularity.DAY, "%Y-%m-%d");
+        written += rebuild(Granularity.MONTH, "%Y-%m");
+        written += rebuild(Granularity.YEAR, "%Y");
+        return written;
+    }
+
+    // group all entries by (username, type, category, bucket) and insert the sums in batches
+    // results are streamed through a cursor, so the backfill never holds the whole collection in memory
+    // spring data stores a LocalDate as midnight of that day in the server's default time zone, so the date is formatted
+    // in that zone too; in UTC every entry of a server east of it would land on the day before its incremental bucket
+    private long rebuild(Granularity granularity, String bucketFormat) {
+        DateOperators.Timezone storedIn = DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId());
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("date").ne(null)),
+            Aggregation.project("username", "amount")
+                .and(
+                    ConditionalOperators
+                        .when(ComparisonOperators.valueOf(StringOperators.valueOf("type").toLower()).equalToValue("income"))
+                        .then("Income")
+                        .otherwise("Expense")
+                ).as("type")
+                .and(ConditionalOperators.ifNull("category").then("Other")).as("category")
+                .and(DateOperators.dateOf("date").withTimezone(storedIn).toString(bucketFormat)).as("bucket"),
+            Aggregation.group("username", "type", "category", "bucket")
+                .sum("amount").as("total")
+                .count().as("count")
+        ).withOptions(Aggregation.newAggregationOptions().allowDiskUse(true).build());
+
+        long written = 0;
+        List<DataEntryRollup> batch = new ArrayList<>(REBUILD_BATCH_SIZE);
+
+        try (Stream<Document> stream = mongoTemplate.aggregateStream(
+            aggregation, mongoTemplate.getCollectionName(DataEntry.class), Document.class
+        )) {
+            Iterator<Document> it = stream.iterator();
+            while (it.hasNext()) {
+                Document doc = it.next();
+                Document key = doc.get("_id", Document.class);
+
+                batch.add(new DataEntryRollup(
+                    key.getString("username"),
+                    key.getString("type"),
+                    key.getString("category"),
+                    granularity,
+                    key.getString("bucket"),
+                    ((Number) doc.get("total")).longValue(),
+                    ((Number) doc.get("count")).longValue()
+                ));
+
+                if (batch.size() == REBUILD_BATCH_SIZE) {
+                    written += insert(batch);
+                }
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            written += insert(batch);
+        }
+        return written;
+    }
+
+    private int insert(List<DataEntryRollup> batch) {
+        int size = batch.size();
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DataEntryRollup.class)
+            .insert(batch)
+            .execute();
+        batch.clear();
+        return size;
+    }
+
+    // the $inc upserts of one entry for all three granularities
+    private static void addDelta(List<Upsert> upserts, DataEntry entry, int sign) {
+        if (entry == null || entry.getDate() == null || entry.getUsername() == null) {
+            return; // entries without a date are not part of any stats view
+        }
+
+        LocalDate date = entry.getDate();
+        String type = normalizeType(entry.getType());
+        String category = normalizeCategory(entry.getCategory());
+        Update update = new Update()
+            .inc("total", (long) sign * entry.getAmount())
+            .inc("count", sign);
+
+        for (Granularity granularity : Granularity.values()) {
+            upserts.add(new Upsert(rollupQuery(entry.getUsername(), type, category, granularity, bucket(granularity, date)), update));
+        }
+    }
+
+    private static Query rollupQuery(String username, String type, String category, Granularity granularity, String bucket) {
+        return new Query(
+            Criteria.where("username").is(username)
+                .and("type").is(type)
+                .and("category").is(category)
+                .and("granularity").is(granularity)
+                .and("bucket").is(bucket)
+        );
+    }
+
+    private static boolean sameContribution(DataEntry a, DataEntry b) {
+        return Objects.equals(a.getUsername(), b.getUsername())
+            && Objects.equals(normalizeType(a.getType()), normalizeType(b.getType()))
+            && Objects.equals(normalizeCategory(a.getCategory()), normalizeCategory(b.getCategory()))
+            && Objects.equals(a.getDate(), b.getDate())
+            && a.getAmount() == b.getAmount();
+    }
+
+    public static String bucket(Granularity granularity, LocalDate date) {
+        return switch (granularity) {
+            case DAY -> date.toString();
+            case MONTH -> YearMonth.from(date).toString();
+            case YEAR -> String.valueOf(date.getYear());
+        };
+    }
+
+    // same rule as the client: anything that is not "Income" counts as an expense
+    public static String normalizeType(String type) {
+        return "Income".equalsIgnoreCase(type) ? "Income" : "Expense";
+    }
+
+    public static String normalizeCategory(String category) {
+        return category != null ? category : "Other";
+    }
+}
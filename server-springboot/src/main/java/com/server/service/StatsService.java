@@ -0,0 +1,175 @@
+package com.server.service;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import com.server.model.CacheStats;
+import com.server.model.DataEntryRollup;
+import com.server.model.DataEntryRollup.Granularity;
+import com.server.model.StatsResult;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// computes the stats screen numbers (category totals + time series) next to the data, using mongo aggregation over the rollups
+// results are kept in a small LRU cache, DataEntryService invalidates a user's results whenever their entries change
+@Service
+public class StatsService {
+    public enum Mode { MONTH, YEAR, TOTAL }
+
+    private static final int MAX_CACHED_RESULTS = 1000;
+
+    private record StatsKey(String username, Mode mode, String period, boolean income) {}
+
+    private final MongoTemplate mongoTemplate;
+
+    // access ordered LinkedHashMap drops the least recently used result once the cache is full
+    private final Map<StatsKey, StatsResult> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<StatsKey, StatsResult> eldest) {
+            return size() > MAX_CACHED_RESULTS;
+        }
+    };
+
+    // bumped on every invalidation, a result computed while a write happened is not cached
+    private long version = 0;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public StatsService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // period is "yyyy-MM" for MONTH, "yyyy" for YEAR and ignored for TOTAL
+    // null period means the current month / year
+    public StatsResult getStats(String username, Mode mode, String period, boolean income) {
+        String normalizedPeriod = normalizePeriod(mode, period);
+        StatsKey key = new StatsKey(username, mode, normalizedPeriod, income);
+
+        long versionBefore;
+        synchronized (cache) {
+            StatsResult cached = cache.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            versionBefore = version;
+        }
+        misses.incrementAndGet();
+
+        StatsResult result = aggregate(username, mode, normalizedPeriod, income);
+
+        synchronized (cache) {
+            if (version == versionBefore) {
+                cache.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    // drop every cached result of the user, called after their entries are saved or deleted
+    public void invalidate(String username) {
+        synchronized (cache) {
+            version++;
+            cache.keySet().removeIf(k -> k.username().equals(username));
+        }
+    }
+
+    public CacheStats getCacheStats() {
+        synchronized (cache) {
+            return new CacheStats(hits.get(), misses.get(), cache.size());
+        }
+    }
+
+    // reads the pre-aggregated rollups instead of raw entries, so the cost depends on the number of buckets
+    private StatsResult aggregate(String username, Mode mode, String period, boolean income) {
+        Document doc = mongoTemplate
+            .aggregate(aggregation(username, mode, period, income), mongoTemplate.getCollectionName(DataEntryRollup.class), Document.class)
+            .getUniqueMappedResult();
+        return toResult(mode, doc);
+    }
+
+    // the stats pipeline over data_entry_rollups, period must already be normalized
+    // MONTH reads DAY rollups of the month, YEAR reads MONTH rollups of the year, TOTAL reads YEAR rollups
+    public static Aggregation aggregation(String username, Mode mode, String period, boolean income) {
+        Criteria criteria = Criteria.where("username").is(username)
+            .and("type").is(income ? "Income" : "Expense");
+
+        switch (mode) {
+            case MONTH -> {
+                YearMonth month = YearMonth.parse(period);
+                criteria = criteria.and("granularity").is(Granularity.DAY)
+                    .and("bucket")
+                    .gte(RollupService.bucket(Granularity.DAY, month.atDay(1)))
+                    .lte(RollupService.bucket(Granularity.DAY, month.atEndOfMonth()));
+            }
+            case YEAR -> {
+                criteria = criteria.and("granularity").is(Granularity.MONTH)
+                    .and("bucket").gte(period + "-01").lte(period + "-12");
+            }
+            default -> criteria = criteria.and("granularity").is(Granularity.YEAR);
+        }
+
+        // one round trip: both groupings run over the same matched rollups
+        return Aggregation.newAggregation(
+            Aggregation.match(criteria),
+            Aggregation.facet(
+                    Aggregation.group("category").sum("total").as("total"),
+                    Aggregation.match(Criteria.where("total").ne(0)),
+                    Aggregation.sort(Sort.Direction.DESC, "total")
+                ).as("categories")
+                .and(
+                    Aggregation.group("bucket").sum("total").as("total"),
+                    Aggregation.match(Criteria.where("total").ne(0)),
+                    Aggregation.sort(Sort.Direction.ASC, "_id")
+                ).as("series")
+        );
+    }
+
+    // turns the single document of the pipeline into the response, doc is null when nothing matched
+    public static StatsResult toResult(Mode mode, Document doc) {
+        Map<String, Long> categoryTotals = new LinkedHashMap<>();
+        Map<String, Long> seriesTotals = new LinkedHashMap<>();
+        long total = 0;
+
+        if (doc != null) {
+            for (Document d : doc.getList("categories", Document.class, Collections.emptyList())) {
+                long amount = ((Number) d.get("total")).longValue();
+                categoryTotals.put(String.valueOf(d.get("_id")), amount);
+                total += amount;
+            }
+            for (Document d : doc.getList("series", Document.class, Collections.emptyList())) {
+                seriesTotals.put(bucketLabel(mode, d.getString("_id")), ((Number) d.get("total")).longValue());
+            }
+        }
+
+        return new StatsResult(categoryTotals, total, seriesTotals);
+    }
+
+    // labels match the ones the swing client's StatsAggregator produces
+    // bucket is 2025-12-04 in MONTH mode, 2025-12 in YEAR mode and 2025 in TOTAL mode
+    private static String bucketLabel(Mode mode, String bucket) {
+        return switch (mode) {
+            case MONTH -> String.valueOf(LocalDate.parse(bucket).getDayOfMonth());
+            case YEAR -> YearMonth.parse(bucket).getMonth().name().substring(0, 3);
+            case TOTAL -> bucket;
+        };
+    }
+
+    // throws DateTimeParseException / NumberFormatException when period does not match the mode
+    public static String normalizePeriod(Mode mode, String period) {
+        return switch (mode) {
+            case MONTH -> (period == null || period.isEmpty()) ? YearMonth.now().toString() : YearMonth.parse(period).toString();
+            case YEAR -> (period == null || period.isEmpty()) ? String.valueOf(LocalDate.now().getYear()) : String.valueOf(Integer.parseInt(period));
+            case TOTAL -> "";
+        };
+    }
+}
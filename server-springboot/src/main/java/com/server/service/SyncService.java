@@ -0,0 +1,299 @@
+package com.server.service;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.server.model.DataEntry;
+import com.server.model.ExpenseCategory;
+import com.server.model.SyncCounter;
+import com.server.model.SyncResult;
+import com.server.model.Tombstone;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// change versions, tombstones and delta reads for client sync
+// every write to a user's entries or categories is stamped with the next value of that user's counter,
+// and every delete leaves a tombstone with its own version, so a client that remembers the last version it saw
+// can ask for exactly the documents and deletions that came after it
+//
+// versions are reserved before the write and released once it is done, the counter keeps the open reservations
+// a sync only hands out the committed version, the newest one below every open reservation, so a client never
+// remembers a version whose documents are not stored yet; writes that landed above it are simply sent again next time
+// a reservation left open by a server that stopped mid write stops holding the committed version back after
+// RESERVATION_TIMEOUT and is dropped by the compaction job
+@Service
+public class SyncService {
+    public static final Duration RESERVATION_TIMEOUT = Duration.ofMinutes(10);
+    // released entries are trimmed from the counter once this many have gathered at its front
+    public static final int TRIM_AFTER = 16;
+
+    // reservations of this server still open, by user and first version, so release finds the entry to mark done
+    private record Open(String username, long first) {}
+    private final Map<Open, ObjectId> open = new ConcurrentHashMap<>();
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration tombstoneRetention;
+
+    public SyncService(
+        MongoTemplate mongoTemplate,
+        @Value("${sync.tombstone-retention-days:30}") long tombstoneRetentionDays
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.tombstoneRetention = Duration.ofDays(tombstoneRetentionDays);
+    }
+
+    // versions reserved up front for many writes, possibly of different users, handed out one at a time
+    public static class Versions {
+        private final Map<String, Long> first;
+        private final Map<String, Long> next;
+
+        private Versions(Map<String, Long> first) {
+            this.first = first;
+            this.next = new HashMap<>(first);
+        }
+
+        public long next(String username) {
+            long version = next.get(username);
+            next.put(username, version + 1);
+            return version;
+        }
+    }
+
+    // newest version whose documents, and those of every version before it, are stored
+    // 0 if nothing was written since versions were introduced
+    public long committedVersion(String username) {
+        return committed(mongoTemplate.findById(username, SyncCounter.class));
+    }
+
+    // pending is in the order the versions were taken and each entry took the count versions right after the one
+    // before it, so walking back from the version gives every entry's range; the oldest open one holds the rest back
+    static long committed(SyncCounter counter) {
+        if (counter == null) {
+            return 0;
+        }
+        Instant stale = Instant.now().minus(RESERVATION_TIMEOUT);
+        long committed = counter.getVersion();
+        long last = counter.getVersion();
+        List<SyncCounter.Reservation> pending = counter.getPending();
+        for (int i = pending.size() - 1; i >= 0; i--) {
+            SyncCounter.Reservation r = pending.get(i);
+            long first = last - r.count() + 1;
+            if (holdsBack(r, stale)) {
+                committed = first - 1;
+            }
+            last = first - 1;
+        }
+        return committed;
+    }
+
+    private static boolean holdsBack(SyncCounter.Reservation r, Instant stale) {
+        return !r.done() && r.at().isAfter(stale);
+    }
+
+    // the caller must release the version once its write is done, see reserve
+    public long nextVersion(String username) {
+        return reserve(username, 1);
+    }
+
+    // reserve count consecutive versions, returns the first of them
+    // one findAndModify adds count to the version and appends the reservation, and returns the counter as it left it,
+    // so concurrent writers never share a version and nobody reads the counter first
+    // the caller must release the reservation once its write is done or failed, in a finally block
+    public long reserve(String username, int count) {
+        ObjectId token = new ObjectId();
+        SyncCounter counter;
+        try {
+            counter = mongoTemplate.findAndModify(counterOf(username), reservation(token, count, Instant.now()), RESERVE, SyncCounter.class);
+        } catch (DuplicateKeyException e) {
+            // the first writes of a new user raced to create the counter, the other one did, so this one updates it
+            counter = mongoTemplate.findAndModify(counterOf(username), reservation(token, count, Instant.now()), RESERVE, SyncCounter.class);
+        }
+        long first = counter.getVersion() - count + 1;
+        open.put(new Open(username, first), token);
+        trim(counter, TRIM_AFTER);
+        return first;
+    }
+
+    // one reservation per user, unused versions simply leave gaps
+    public Versions reserve(Map<String, Integer> counts) {
+        Map<String, Long> first = new HashMap<>();
+        counts.forEach((username, count) -> first.put(username, reserve(username, count)));
+        return new Versions(first);
+    }
+
+    // the writes of the reservation starting at first are done, successfully or not
+    public void release(String username, long first) {
+        ObjectId token = open.remove(new Open(username, first));
+        if (token != null) {
+            mongoTemplate.updateFirst(reservationOf(username, token), released(), SyncCounter.class);
+        }
+    }
+
+    public void release(Versions versions) {
+        versions.first.forEach(this::release);
+    }
+
+    private void trim(SyncCounter counter, int atLeast) {
+        List<ObjectId> finished = finished(counter);
+        if (!finished.isEmpty() && finished.size() >= atLeast) {
+            mongoTemplate.updateFirst(counterOf(counter.getUsername()), trimmed(finished), SyncCounter.class);
+        }
+    }
+
+    // shared with the reactive service, which writes the same counters
+    public static final FindAndModifyOptions RESERVE = FindAndModifyOptions.options().upsert(true).returnNew(true);
+
+    public static Query counterOf(String username) {
+        return new Query(Criteria.where("username").is(username));
+    }
+
+    public static Query reservationOf(String username, ObjectId token) {
+        return new Query(Criteria.where("username").is(username).and("pending.token").is(token));
+    }
+
+    public static Update reservation(ObjectId token, int count, Instant at) {
+        return new Update()
+            .inc("version", count)
+            .push("pending", new Document("token", token)
+                .append("count", (long) count)
+                .append("at", Date.from(at))
+                .append("done", false));
+    }
+
+    public static Update released() {
+        return new Update().set("pending.$.done", true);
+    }
+
+    // done or stale entries at the front hold nothing back and no entry after them needs their count, so they can go
+    public static List<ObjectId> finished(SyncCounter counter) {
+        Instant stale = Instant.now().minus(RESERVATION_TIMEOUT);
+        List<ObjectId> finished = new ArrayList<>();
+        for (SyncCounter.Reservation r : counter.getPending()) {
+            if (holdsBack(r, stale)) {
+                break;
+            }
+            finished.add(r.token());
+        }
+        return finished;
+    }
+
+    // removed by token, so a trim racing a reservation or another trim cannot take anything else
+    public static Update trimmed(List<ObjectId> finished) {
+        return new Update().pull("pending", new Document("token", new Document("$in", finished)));
+    }
+
+    public void tombstone(String username, String kind, String docId, long version) {
+        mongoTemplate.insert(new Tombstone(username, kind, docId, version));
+    }
+
+    public void tombstones(List<Tombstone> tombstones) {
+        if (!tombstones.isEmpty()) {
+            mongoTemplate.insertAll(tombstones);
+        }
+    }
+
+    // everything that changed after since, or the full state when the client has nothing usable
+    // a full sync happens when since is missing, older than the compacted tombstones, or from another counter
+    public SyncResult changesSince(String username, Long since) {
+        // read the counter first, documents written meanwhile get a higher version and are sent again next time
+        SyncCounter counter = mongoTemplate.findById(username, SyncCounter.class);
+        long current = counter == null ? 0 : counter.getVersion();
+        long committed = committed(counter);
+        long purgedThrough = counter == null ? 0 : counter.getPurgedThrough();
+
+        Criteria byUser = Criteria.where("username").is(username);
+
+        if (since == null || since <= 0 || since < purgedThrough || since > current) {
+            return new SyncResult(
+                committed,
+                true,
+                mongoTemplate.find(new Query(byUser), DataEntry.class),
+                mongoTemplate.find(new Query(byUser), ExpenseCategory.class),
+                List.of(),
+                List.of()
+            );
+        }
+
+        Query changed = new Query(Criteria.where("username").is(username).and("version").gt(since));
+
+        List<String> deletedEntries = new ArrayList<>();
+        List<String> deletedCategories = new ArrayList<>();
+        for (Tombstone t : mongoTemplate.find(changed, Tombstone.class)) {
+            if (Tombstone.ENTRY.equals(t.getKind())) {
+                deletedEntries.add(t.getDocId());
+            } else {
+                deletedCategories.add(t.getDocId());
+            }
+        }
+
+        return new SyncResult(
+            committed,
+            false,
+            mongoTemplate.find(changed, DataEntry.class),
+            mongoTemplate.find(changed, ExpenseCategory.class),
+            deletedEntries,
+            deletedCategories
+        );
+    }
+
+    // drop tombstones older than the retention period, returns how many were removed
+    // each affected user's purgedThrough is raised first, so a client that missed one of them falls back to a full sync
+    public long compactTombstones() {
+        Criteria expired = Criteria.where("deletedAt").lt(Instant.now().minus(tombstoneRetention));
+
+        Aggregation newestPerUser = Aggregation.newAggregation(
+            Aggregation.match(expired),
+            Aggregation.group("username").max("version").as("version")
+        );
+        for (Document doc : mongoTemplate.aggregate(newestPerUser, Tombstone.class, Document.class)) {
+            mongoTemplate.updateFirst(
+                new Query(Criteria.where("username").is(doc.getString("_id"))),
+                new Update().max("purgedThrough", ((Number) doc.get("version")).longValue()),
+                SyncCounter.class
+            );
+        }
+
+        // entries of writes that never finished (committed() already ignores them) and released entries
+        // no later reservation has trimmed yet
+        Query finished = new Query(new Criteria().orOperator(
+            Criteria.where("pending.at").lt(Date.from(Instant.now().minus(RESERVATION_TIMEOUT))),
+            Criteria.where("pending.done").is(true)
+        ));
+        for (SyncCounter counter : mongoTemplate.find(finished, SyncCounter.class)) {
+            trim(counter, 1);
+        }
+
+        return mongoTemplate.remove(new Query(expired), Tombstone.class).getDeletedCount();
+    }
+
+    // after an account is deleted the counter is kept and moved past everything the old account wrote,
+    // so a client still holding the old account's data does a full sync if the username is registered again
+    public void forgetHistory(String username) {
+        long version = nextVersion(username);
+        try {
+            mongoTemplate.updateFirst(
+                counterOf(username),
+                new Update().max("purgedThrough", version),
+                SyncCounter.class
+            );
+        } finally {
+            release(username, version);
+        }
+    }
+}
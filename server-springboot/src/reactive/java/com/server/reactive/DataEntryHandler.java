@@ -0,0 +1,140 @@
+package com.server.reactive;
+
+import com.server.model.DataEntry;
+import com.server.model.ExpenseCategory;
+import com.server.model.StatsResult;
+import com.server.service.StatsService;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+// handlers behind ReactiveRoutes, same requests and responses as DataEntryController, StatsController
+// and the category read of ExpenseCategoryController
+// lists are written as a Flux: a json array by default, one entry per line when the client accepts application/x-ndjson
+@Component
+public class DataEntryHandler {
+
+    // record class to hold data entry request data, same fields as DataEntryController's
+    record DataEntryRequest(String username, String type, String date, String category, String note, int amount, String paymentType) {
+
+        // same rules as DataEntryController
+        boolean isValid() {
+            return !(
+                username == null ||
+                username.isEmpty() ||
+                type == null ||
+                type.isEmpty() ||
+                date == null ||
+                date.isEmpty() ||
+                category == null ||
+                category.isEmpty() ||
+                amount <= 0 ||
+                paymentType == null ||
+                paymentType.isEmpty()
+            );
+        }
+
+        DataEntry toEntry() {
+            return new DataEntry(username, type, LocalDate.parse(date), category, note, amount, paymentType);
+        }
+    }
+
+    private final ReactiveDataEntryService service;
+    private final ReactiveExpenseCategoryRepo categoryRepo;
+
+    public DataEntryHandler(ReactiveDataEntryService service, ReactiveExpenseCategoryRepo categoryRepo) {
+        this.service = service;
+        this.categoryRepo = categoryRepo;
+    }
+
+    public Mono<ServerResponse> getAll(ServerRequest request) {
+        return list(request, service.streamAll(), DataEntry.class);
+    }
+
+    public Mono<ServerResponse> getById(ServerRequest request) {
+        return service.getById(request.pathVariable("id"))
+            .flatMap(entry -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(entry))
+            // the servlet controller answers a missing entry with 200 and a null body
+            .switchIfEmpty(ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue("null"));
+    }
+
+    // optional from / to (yyyy-MM-dd) narrow the list to a date range
+    public Mono<ServerResponse> getByUser(ServerRequest request) {
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = request.queryParam("from").map(LocalDate::parse).orElse(null);
+            to = request.queryParam("to").map(LocalDate::parse).orElse(null);
+        } catch (DateTimeParseException e) {
+            return ServerResponse.badRequest().bodyValue("INVALID_DATE");
+        }
+        return list(request, service.getByUsername(request.pathVariable("username"), from, to), DataEntry.class);
+    }
+
+    public Mono<ServerResponse> addEntry(ServerRequest request) {
+        return request.bodyToMono(DataEntryRequest.class)
+            .flatMap(req -> {
+                if (!req.isValid()) {
+                    return ServerResponse.ok().bodyValue("INVALID");
+                }
+                return service.save(req.toEntry()).then(ServerResponse.ok().bodyValue("OK"));
+            })
+            .switchIfEmpty(ServerResponse.ok().bodyValue("INVALID"));
+    }
+
+    public Mono<ServerResponse> updateEntry(ServerRequest request) {
+        Mono<DataEntryRequest> body = request.bodyToMono(DataEntryRequest.class);
+        return service.getById(request.pathVariable("id"))
+            .flatMap(entry -> body.flatMap(req -> {
+                // remember the old values, rollups need to reverse them
+                DataEntry previous = new DataEntry(entry);
+
+                entry.setType(req.type());
+                entry.setDate(LocalDate.parse(req.date()));
+                entry.setCategory(req.category());
+                entry.setNote(req.note());
+                entry.setAmount(req.amount());
+                entry.setPaymentType(req.paymentType());
+
+                return service.update(previous, entry).then(ServerResponse.ok().bodyValue("OK"));
+            }))
+            .switchIfEmpty(ServerResponse.ok().bodyValue("NOT_FOUND"));
+    }
+
+    public Mono<ServerResponse> delete(ServerRequest request) {
+        return service.delete(request.pathVariable("id")).then(ServerResponse.ok().bodyValue("OK"));
+    }
+
+    // e.g. /api/stats/johndoe?mode=MONTH&period=2025-12&income=false
+    public Mono<ServerResponse> getStats(ServerRequest request) {
+        Mono<StatsResult> result;
+        try {
+            StatsService.Mode mode = StatsService.Mode.valueOf(request.queryParam("mode").orElse("MONTH"));
+            boolean income = Boolean.parseBoolean(request.queryParam("income").orElse("false"));
+            result = service.getStats(request.pathVariable("username"), mode, request.queryParam("period").orElse(null), income);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // unknown mode, or period does not match the mode (yyyy-MM for MONTH, yyyy for YEAR)
+            return ServerResponse.badRequest().bodyValue("INVALID_PERIOD");
+        }
+        return result.flatMap(stats -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(stats));
+    }
+
+    public Mono<ServerResponse> getCategories(ServerRequest request) {
+        return list(request, categoryRepo.findByUsername(request.pathVariable("username")), ExpenseCategory.class);
+    }
+
+    private static <T> Mono<ServerResponse> list(ServerRequest request, Flux<T> items, Class<T> type) {
+        MediaType contentType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+            ? MediaType.APPLICATION_NDJSON
+            : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok().contentType(contentType).body(items, type);
+    }
+}
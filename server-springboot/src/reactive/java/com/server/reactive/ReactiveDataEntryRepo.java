@@ -0,0 +1,11 @@
+package com.server.reactive;
+
+import com.server.model.DataEntry;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import reactor.core.publisher.Flux;
+
+// reactive counterpart of DataEntryRepo, results are emitted while the cursor is read
+public interface ReactiveDataEntryRepo extends ReactiveMongoRepository<DataEntry, String> {
+    Flux<DataEntry> findByUsername(String username);
+}
@@ -0,0 +1,186 @@
+package com.server.reactive;
+
+import com.server.model.DataEntry;
+import com.server.model.DataEntryRollup;
+import com.server.model.StatsResult;
+import com.server.model.SyncCounter;
+import com.server.model.Tombstone;
+import com.server.service.RollupService;
+import com.server.service.StatsService;
+import com.server.service.SyncService;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+// reactive counterpart of DataEntryService: same documents, versions, tombstones and rollups,
+// written through the reactive driver so no thread waits on mongo
+// stats are not cached here, the servlet server's StatsService cache does not see writes made through this one
+@Service
+public class ReactiveDataEntryService {
+    private static final int RESERVE_ATTEMPTS = 8;
+    private static final Duration RESERVE_BACKOFF = Duration.ofMillis(5);
+
+    private final ReactiveDataEntryRepo dataEntryRepo;
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveDataEntryService(ReactiveDataEntryRepo dataEntryRepo, ReactiveMongoTemplate mongoTemplate) {
+        this.dataEntryRepo = dataEntryRepo;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public Flux<DataEntry> streamAll() {
+        return dataEntryRepo.findAll();
+    }
+
+    public Mono<DataEntry> getById(String id) {
+        return dataEntryRepo.findById(id);
+    }
+
+    // all entries of the user, or only those between from and to (both inclusive, either may be null)
+    // the ranged read uses the (username, date, _id) index just like the paginated servlet endpoint
+    public Flux<DataEntry> getByUsername(String username, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return dataEntryRepo.findByUsername(username);
+        }
+
+        Criteria criteria = Criteria.where("username").is(username);
+        if (from != null && to != null) {
+            criteria = criteria.and("date").gte(from).lte(to);
+        } else if (from != null) {
+            criteria = criteria.and("date").gte(from);
+        } else {
+            criteria = criteria.and("date").lte(to);
+        }
+        return mongoTemplate.find(
+            new Query(criteria).with(Sort.by(Sort.Order.asc("date"), Sort.Order.asc("id"))),
+            DataEntry.class
+        );
+    }
+
+    // save an entry whose values before the change are known (previous is null for a new entry)
+    public Mono<DataEntry> update(DataEntry previous, DataEntry entry) {
+        return versioned(entry.getUsername(), version -> {
+                entry.setVersion(version);
+                return dataEntryRepo.save(entry);
+            })
+            .flatMap(saved -> applyRollups(previous, saved)
+                .then(movedAway(previous, saved))
+                .thenReturn(saved));
+    }
+
+    public Mono<DataEntry> save(DataEntry entry) {
+        return update(null, entry);
+    }
+
+    // completes empty when the entry does not exist
+    public Mono<Void> delete(String id) {
+        return dataEntryRepo.findById(id)
+            .flatMap(existing -> dataEntryRepo.deleteById(id)
+                .then(tombstone(existing.getUsername(), id))
+                .then(applyRollups(existing, null)));
+    }
+
+    // same pipeline and result shape as StatsService, period as in StatsService.getStats
+    // throws DateTimeParseException / NumberFormatException when period does not match the mode
+    public Mono<StatsResult> getStats(String username, StatsService.Mode mode, String period, boolean income) {
+        String normalizedPeriod = StatsService.normalizePeriod(mode, period);
+        return mongoTemplate
+            .aggregate(
+                StatsService.aggregation(username, mode, normalizedPeriod, income),
+                mongoTemplate.getCollectionName(DataEntryRollup.class),
+                Document.class
+            )
+            .next()
+            .map(doc -> StatsService.toResult(mode, doc))
+            .defaultIfEmpty(StatsService.toResult(mode, null));
+    }
+
+    private record Reserved(long version, ObjectId token) {}
+
+    // same reservation as SyncService.nextVersion, released once the write is done or failed
+    private <T> Mono<T> versioned(String username, Function<Long, Mono<T>> write) {
+        return Mono.usingWhen(
+            reserve(username),
+            reserved -> write.apply(reserved.version()),
+            reserved -> mongoTemplate.updateFirst(
+                SyncService.reservationOf(username, reserved.token()),
+                SyncService.released(),
+                SyncCounter.class
+            )
+        );
+    }
+
+    // one findAndModify like SyncService.reserve; only the first writes of a new user racing to create the counter
+    // are retried, after a short backoff and a bounded number of times
+    private Mono<Reserved> reserve(String username) {
+        return Mono
+            .defer(() -> {
+                ObjectId token = new ObjectId();
+                return mongoTemplate
+                    .findAndModify(
+                        SyncService.counterOf(username),
+                        SyncService.reservation(token, 1, Instant.now()),
+                        SyncService.RESERVE,
+                        SyncCounter.class
+                    )
+                    .flatMap(counter -> trim(counter).thenReturn(new Reserved(counter.getVersion(), token)));
+            })
+            .retryWhen(Retry.backoff(RESERVE_ATTEMPTS, RESERVE_BACKOFF).filter(DuplicateKeyException.class::isInstance));
+    }
+
+    // this server runs no compaction job, released entries are trimmed here as in SyncService.reserve
+    private Mono<Void> trim(SyncCounter counter) {
+        List<ObjectId> finished = SyncService.finished(counter);
+        if (finished.size() < SyncService.TRIM_AFTER) {
+            return Mono.empty();
+        }
+        return mongoTemplate
+            .updateFirst(SyncService.counterOf(counter.getUsername()), SyncService.trimmed(finished), SyncCounter.class)
+            .then();
+    }
+
+    private Mono<Void> tombstone(String username, String id) {
+        return versioned(username, version -> mongoTemplate.insert(new Tombstone(username, Tombstone.ENTRY, id, version)))
+            .then();
+    }
+
+    // the entry changed owner, for the old owner it is gone
+    private Mono<Void> movedAway(DataEntry previous, DataEntry saved) {
+        if (previous == null || saved.getUsername().equals(previous.getUsername())) {
+            return Mono.empty();
+        }
+        return tombstone(previous.getUsername(), saved.getId());
+    }
+
+    // the same $inc upserts RollupService would send, in one unordered bulk write
+    private Mono<Void> applyRollups(DataEntry previous, DataEntry updated) {
+        List<RollupService.Upsert> upserts = RollupService.upserts(List.of(new RollupService.Change(previous, updated)));
+        if (upserts.isEmpty()) {
+            return Mono.empty();
+        }
+
+        ReactiveBulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DataEntryRollup.class);
+        for (RollupService.Upsert upsert : upserts) {
+            ops.upsert(upsert.query(), upsert.update());
+        }
+        return ops.execute().then();
+    }
+}
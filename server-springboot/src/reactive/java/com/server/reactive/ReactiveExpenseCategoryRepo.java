@@ -0,0 +1,11 @@
+package com.server.reactive;
+
+import com.server.model.ExpenseCategory;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import reactor.core.publisher.Flux;
+
+// reactive counterpart of ExpenseCategoryRepo
+public interface ReactiveExpenseCategoryRepo extends ReactiveMongoRepository<ExpenseCategory, String> {
+    Flux<ExpenseCategory> findByUsername(String username);
+}
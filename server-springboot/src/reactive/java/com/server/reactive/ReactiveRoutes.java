@@ -0,0 +1,29 @@
+package com.server.reactive;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+// functional routes mirroring DataEntryController and StatsController, plus the category list the client loads with them
+// /api/data-entries/batch and paging with limit / cursor are only served by the servlet server
+@Configuration
+public class ReactiveRoutes {
+
+    @Bean
+    public RouterFunction<ServerResponse> dataEntryRoutes(DataEntryHandler handler) {
+        return route()
+            .path("/api/data-entries", builder -> builder
+                .GET("/user/{username}", handler::getByUser)
+                .GET("/{id}", handler::getById)
+                .GET("", handler::getAll)
+                .POST("", handler::addEntry)
+                .PUT("/{id}", handler::updateEntry)
+                .DELETE("/{id}", handler::delete))
+            .GET("/api/stats/{username}", handler::getStats)
+            .GET("/categories/{username}", handler::getCategories)
+            .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.server.reactive;
+
+import com.server.security.JWTUtil;
+import com.server.security.VerifiedToken;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.server.WebFilter;
+
+import java.util.List;
+
+// same rules as the servlet SecurityConfig + JwtAuthFilter: every route needs a valid bearer token
+@Configuration
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    private final JWTUtil jwtUtil;
+
+    public ReactiveSecurityConfig(JWTUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    @Bean
+    public SecurityWebFilterChain filterChain(ServerHttpSecurity http) {
+        return http
+            .csrf(csrf -> csrf.disable())
+            .httpBasic(basic -> basic.disable())
+            .formLogin(form -> form.disable())
+            // stateless, the token is verified on every request
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            .exceptionHandling(e -> e.authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)))
+            .authorizeExchange(auth -> auth.anyExchange().authenticated())
+            .addFilterAt(jwtFilter(), SecurityWebFiltersOrder.AUTHENTICATION)
+            .build();
+    }
+
+    // puts the token's user into the reactive security context, requests without a valid token stay anonymous and get 401
+    private WebFilter jwtFilter() {
+        return (exchange, chain) -> {
+            String header = exchange.getRequest().getHeaders().getFirst("Authorization");
+            if (header == null || !header.startsWith("Bearer ")) {
+                return chain.filter(exchange);
+            }
+
+            // verified tokens are cached by JWTUtil, so this stays cheap enough to run on the event loop
+            VerifiedToken verified = jwtUtil.verify(header.substring(7));
+            if (verified == null) {
+                return chain.filter(exchange);
+            }
+
+            UsernamePasswordAuthenticationToken auth =
+                new UsernamePasswordAuthenticationToken(verified.username(), null, List.of());
+            return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth));
+        };
+    }
+}
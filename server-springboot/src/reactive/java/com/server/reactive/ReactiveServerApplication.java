@@ -0,0 +1,26 @@
+package com.server.reactive;
+
+import com.server.config.EnvConfig;
+import com.server.config.MongoIndexConfig;
+import com.server.security.JWTUtil;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+
+// reactive variant of the server, only built with the "reactive" maven profile
+// serves the data entry, stats and category reads on netty with the reactive mongo driver,
+// login / register and everything else stay on the servlet server (ServerApplication), tokens are shared through JWT_SECRET
+// only com.server.reactive is scanned, the servlet controllers and services are never created here
+@SpringBootApplication(scanBasePackages = "com.server.reactive")
+@Import({ EnvConfig.class, JWTUtil.class, MongoIndexConfig.class })
+public class ReactiveServerApplication {
+
+    public static void main(String[] args) {
+        // spring-boot-starter-web is on the classpath as well, so the web type has to be forced
+        new SpringApplicationBuilder(ReactiveServerApplication.class)
+            .web(WebApplicationType.REACTIVE)
+            .run(args);
+    }
+}
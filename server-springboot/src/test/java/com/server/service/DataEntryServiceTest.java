@@ -0,0 +1,175 @@
+package com.server.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import com.server.model.DataEntry;
+import com.server.model.DataEntryPage;
+import com.server.repository.DataEntryRepo;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// the entries endpoint pages by a (date, _id) keyset cursor, paging through a range has to hand out
+// every entry in it exactly once, also when a page ends in the middle of a day with many entries
+class DataEntryServiceTest {
+    private static final LocalDate FROM = LocalDate.of(2026, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 3, 31);
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private DataEntryService dataEntryService;
+
+    @BeforeEach
+    void start() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "entries");
+        DataEntryRepo dataEntryRepo = new MongoRepositoryFactory(mongoTemplate).getRepository(DataEntryRepo.class);
+        dataEntryService = new DataEntryService(
+            dataEntryRepo,
+            mongoTemplate,
+            new StatsService(mongoTemplate),
+            new RollupService(mongoTemplate),
+            new SyncService(mongoTemplate, 30)
+        );
+    }
+
+    @AfterEach
+    void stop() {
+        client.close();
+        server.shutdown();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 7, 25, 40, 131, 500 })
+    void pagesHandOutEveryEntryOnce(int limit) {
+        List<DataEntry> expected = seed();
+
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            DataEntryPage page = dataEntryService.getPageByUsername("jane", FROM, TO, limit, cursor);
+            assertTrue(page.entries().size() <= limit);
+            page.entries().forEach(e -> paged.add(e.getId()));
+            cursor = page.nextCursor();
+            pages++;
+            assertTrue(pages <= expected.size() + 1, "paging does not end");
+        } while (cursor != null);
+
+        assertEquals(expected.stream().map(DataEntry::getId).toList(), paged);
+        assertEquals(new HashSet<>(paged).size(), paged.size(), "entry handed out twice");
+        // a full last page has no cursor, the extra entry fetched tells there is nothing after it
+        assertEquals(Math.max(1, (expected.size() + limit - 1) / limit), pages);
+    }
+
+    // an entry added on a day the pages already went past is not seen, one added ahead of the cursor is
+    @Test
+    void entriesAddedWhilePagingKeepTheRestInOrder() {
+        List<DataEntry> expected = seed();
+        DataEntryPage first = dataEntryService.getPageByUsername("jane", FROM, TO, 30, null);
+        assertNotNull(first.nextCursor());
+
+        mongoTemplate.insert(entry("jane", FROM));
+        DataEntry ahead = mongoTemplate.insert(entry("jane", TO));
+
+        Set<String> seen = new HashSet<>();
+        first.entries().forEach(e -> assertTrue(seen.add(e.getId())));
+        String cursor = first.nextCursor();
+        while (cursor != null) {
+            DataEntryPage page = dataEntryService.getPageByUsername("jane", FROM, TO, 30, cursor);
+            page.entries().forEach(e -> assertTrue(seen.add(e.getId()), "entry handed out twice"));
+            cursor = page.nextCursor();
+        }
+
+        Set<String> wanted = new HashSet<>();
+        expected.forEach(e -> wanted.add(e.getId()));
+        wanted.add(ahead.getId());
+        assertEquals(wanted, seen);
+    }
+
+    @Test
+    void emptyRangeHasNoCursor() {
+        seed();
+        DataEntryPage page = dataEntryService.getPageByUsername("jane", TO.plusDays(2), TO.plusDays(30), 10, null);
+        assertTrue(page.entries().isEmpty());
+        assertNull(page.nextCursor());
+    }
+
+    // the controller answers both exceptions with 400 INVALID_CURSOR
+    @Test
+    void malformedCursorIsRejected() {
+        seed();
+        for (String cursor : List.of(
+            "not base64!",
+            encode("2026-03-05"),
+            encode("2026-03-05|"),
+            encode("yesterday|65f000000000000000000000"),
+            encode("|65f000000000000000000000")
+        )) {
+            RuntimeException e = assertThrows(RuntimeException.class,
+                () -> dataEntryService.getPageByUsername("jane", FROM, TO, 10, cursor), cursor);
+            assertTrue(e instanceof IllegalArgumentException || e instanceof DateTimeParseException,
+                cursor + " failed with " + e);
+        }
+    }
+
+    // a few busy days around quiet ones, inserted out of order so ids do not follow dates,
+    // plus entries outside the range and of another user; returns jane's entries in the range in page order
+    private List<DataEntry> seed() {
+        Random random = new Random(20261018L);
+        List<DataEntry> entries = new ArrayList<>();
+        for (int day : new int[] { 1, 5, 5, 5, 5, 6, 17, 31 }) {
+            int count = day == 5 ? 30 : 1 + random.nextInt(12);
+            for (int i = 0; i < count; i++) {
+                entries.add(entry("jane", FROM.withDayOfMonth(day)));
+            }
+        }
+        entries.add(entry("jane", FROM.minusDays(1)));
+        entries.add(entry("jane", TO.plusDays(1)));
+        entries.add(entry("john", FROM.withDayOfMonth(5)));
+        Collections.shuffle(entries, random);
+        mongoTemplate.insertAll(entries);
+
+        return entries.stream()
+            .filter(e -> e.getUsername().equals("jane") && !e.getDate().isBefore(FROM) && !e.getDate().isAfter(TO))
+            .sorted(Comparator.comparing(DataEntry::getDate).thenComparing(DataEntry::getId))
+            .toList();
+    }
+
+    private static DataEntry entry(String username, LocalDate date) {
+        return new DataEntry(username, "Expense", date, "Food", "", 100, "Cash");
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,97 @@
+package com.server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import com.server.model.DataEntry;
+import com.server.model.ExpenseCategory;
+import com.server.repository.ExpenseCategoryRepo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LedgerServiceTest {
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private LedgerService ledgerService;
+
+    @BeforeEach
+    void start() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "ledger");
+
+        SyncService syncService = new SyncService(mongoTemplate, 30);
+        ExpenseCategoryRepo categoryRepo = new MongoRepositoryFactory(mongoTemplate).getRepository(ExpenseCategoryRepo.class);
+        ledgerService = new LedgerService(
+            mongoTemplate,
+            new ObjectMapper().findAndRegisterModules(),
+            new RollupService(mongoTemplate),
+            new StatsService(mongoTemplate),
+            syncService,
+            new ExpenseCategoryService(categoryRepo, syncService, 300)
+        );
+    }
+
+    @AfterEach
+    void stop() {
+        client.close();
+        server.shutdown();
+    }
+
+    // writeUTF stops at 64 KB, a note longer than that has to survive an export and a restore
+    @Test
+    void binaryBackupKeepsLongNotes() throws IOException {
+        String note = "🍜 noodles ".repeat(20000);
+        mongoTemplate.insert(new ExpenseCategory("Food", "🍜", "jane"));
+        mongoTemplate.insert(new DataEntry("jane", "Expense", LocalDate.of(2026, 10, 1), "Food", note, 1200, "Card"));
+
+        ByteArrayOutputStream backup = new ByteArrayOutputStream();
+        ledgerService.export("jane", LedgerService.Format.BINARY, backup);
+        ledgerService.restore("john", LedgerService.Format.BINARY, new ByteArrayInputStream(backup.toByteArray()));
+
+        List<DataEntry> restored = mongoTemplate.find(new Query(Criteria.where("username").is("john")), DataEntry.class);
+        assertEquals(1, restored.size());
+        assertEquals(note, restored.get(0).getNote());
+        assertEquals(LocalDate.of(2026, 10, 1), restored.get(0).getDate());
+        assertEquals("🍜", mongoTemplate.findOne(new Query(Criteria.where("username").is("john")), ExpenseCategory.class).getIcon());
+    }
+
+    // a record length from the upload is checked before anything is allocated for it
+    @Test
+    void binaryRestoreRejectsBadRecordLengths() throws IOException {
+        for (int length : new int[] { -1, Integer.MIN_VALUE, Integer.MAX_VALUE, (16 << 20) + 1 }) {
+            ByteArrayOutputStream upload = new ByteArrayOutputStream();
+            DataOutputStream data = new DataOutputStream(upload);
+            data.write(new byte[] { 'M', 'M', 'L', 'G' });
+            data.writeByte(2);
+            data.writeByte(2);
+            data.writeInt(length);
+
+            IOException e = assertThrows(IOException.class, () -> ledgerService.restore(
+                "john", LedgerService.Format.BINARY, new ByteArrayInputStream(upload.toByteArray())
+            ));
+            assertEquals("Backup is corrupt", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.server.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.server.model.DataEntry;
+import com.server.model.DataEntryRollup;
+
+import java.net.InetSocketAddress;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// the backfill and the incremental $inc upserts have to file every entry under the same buckets,
+// whatever time zone the server runs in (spring data stores a LocalDate as midnight in the default zone)
+class RollupServiceTest {
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private RollupService rollupService;
+    private TimeZone defaultZone;
+
+    @BeforeEach
+    void start() {
+        defaultZone = TimeZone.getDefault();
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "rollups");
+        rollupService = new RollupService(mongoTemplate);
+    }
+
+    @AfterEach
+    void stop() {
+        TimeZone.setDefault(defaultZone);
+        client.close();
+        server.shutdown();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "UTC", "Asia/Tokyo", "Asia/Kolkata", "Pacific/Kiritimati", "America/New_York" })
+    void rebuildMatchesIncrementalUpdates(String zone) {
+        TimeZone.setDefault(TimeZone.getTimeZone(zone));
+        Random random = new Random(20261018L);
+        List<DataEntry> stored = new ArrayList<>();
+
+        for (int step = 0; step < 600; step++) {
+            int op = random.nextInt(10);
+            if (op < 6 || stored.isEmpty()) {
+                DataEntry entry = mongoTemplate.insert(randomEntry(random));
+                rollupService.add(entry);
+                stored.add(entry);
+            } else if (op < 9) {
+                DataEntry previous = stored.get(random.nextInt(stored.size()));
+                DataEntry updated = new DataEntry(previous);
+                DataEntry values = randomEntry(random);
+                updated.setDate(values.getDate());
+                updated.setType(values.getType());
+                updated.setCategory(values.getCategory());
+                updated.setAmount(values.getAmount());
+                mongoTemplate.save(updated);
+                rollupService.applyChange(previous, updated);
+                stored.set(stored.indexOf(previous), updated);
+            } else {
+                DataEntry removed = stored.remove(random.nextInt(stored.size()));
+                mongoTemplate.remove(removed);
+                rollupService.remove(removed);
+            }
+        }
+
+        TreeMap<String, String> incremental = rollups();
+        rollupService.rebuild();
+        TreeMap<String, String> rebuilt = rollups();
+
+        assertFalse(rebuilt.isEmpty());
+        assertEquals(incremental, rebuilt);
+    }
+
+    // dates cluster around month and year ends, where a day off moves an entry into another month or year
+    private static DataEntry randomEntry(Random random) {
+        LocalDate date = LocalDate.of(2024 + random.nextInt(3), 1 + random.nextInt(12), 1)
+            .plusDays(random.nextInt(3) - 1);
+        return new DataEntry(
+            "user" + random.nextInt(3),
+            random.nextBoolean() ? "Income" : "Expense",
+            date,
+            random.nextInt(5) == 0 ? null : "Category" + random.nextInt(4),
+            "",
+            random.nextInt(10000),
+            "Cash"
+        );
+    }
+
+    // rollup key -> "total/count", documents an incremental update brought back to zero are left out
+    // as the backfill never writes them
+    private TreeMap<String, String> rollups() {
+        TreeMap<String, String> byKey = new TreeMap<>();
+        for (DataEntryRollup r : mongoTemplate.findAll(DataEntryRollup.class)) {
+            if (r.getCount() == 0) {
+                continue;
+            }
+            String key = r.getUsername() + "|" + r.getType() + "|" + r.getCategory() + "|" + r.getGranularity() + "|" + r.getBucket();
+            byKey.put(key, r.getTotal() + "/" + r.getCount());
+        }
+        return byKey;
+    }
+}
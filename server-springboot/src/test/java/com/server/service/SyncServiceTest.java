@@ -0,0 +1,186 @@
+package com.server.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.server.model.DataEntry;
+import com.server.model.SyncCounter;
+import com.server.model.SyncResult;
+
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// a sync only hands out versions whose documents are stored, see the comment at the top of SyncService
+class SyncServiceTest {
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private SyncService syncService;
+
+    @BeforeEach
+    void start() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "sync");
+        syncService = new SyncService(mongoTemplate, 30);
+    }
+
+    @AfterEach
+    void stop() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    void reservationsAreConsecutive() {
+        assertEquals(1, syncService.reserve("jane", 3));
+        assertEquals(4, syncService.nextVersion("jane"));
+        assertEquals(1, syncService.nextVersion("john"));
+        assertEquals(2, mongoTemplate.findById("jane", SyncCounter.class).getPending().size());
+    }
+
+    // a write that took version 2 and finished before the one holding version 1 is not handed out yet
+    @Test
+    void openReservationHoldsTheCommittedVersionBack() {
+        long slow = syncService.nextVersion("jane");
+        long fast = syncService.nextVersion("jane");
+        mongoTemplate.insert(entry("jane", fast));
+        syncService.release("jane", fast);
+
+        assertEquals(slow - 1, syncService.committedVersion("jane"));
+        SyncResult result = syncService.changesSince("jane", null);
+        assertEquals(slow - 1, result.version());
+
+        mongoTemplate.insert(entry("jane", slow));
+        syncService.release("jane", slow);
+
+        assertEquals(fast, syncService.committedVersion("jane"));
+
+        // the client that synced while version 1 was open gets both entries now
+        SyncResult next = syncService.changesSince("jane", result.version());
+        assertEquals(fast, next.version());
+        assertEquals(2, next.entries().size());
+    }
+
+    // a server that stopped mid write never releases, after the timeout the reservation is ignored and then compacted
+    @Test
+    void staleReservationStopsHoldingBack() {
+        Date stale = Date.from(Instant.now().minus(SyncService.RESERVATION_TIMEOUT).minusSeconds(60));
+        mongoTemplate.getCollection("sync_counters").insertOne(new Document("_id", "jane")
+            .append("version", 5L)
+            .append("purgedThrough", 0L)
+            .append("pending", List.of(new Document("token", new ObjectId())
+                .append("count", 2L)
+                .append("at", stale)
+                .append("done", false))));
+        assertEquals(5, syncService.committedVersion("jane"));
+
+        long open = syncService.nextVersion("jane");
+        assertEquals(6, open);
+        assertEquals(5, syncService.committedVersion("jane"));
+
+        syncService.compactTombstones();
+        List<SyncCounter.Reservation> pending = mongoTemplate.findById("jane", SyncCounter.class).getPending();
+        assertEquals(1, pending.size());
+        assertFalse(pending.get(0).done());
+
+        syncService.release("jane", open);
+        assertEquals(6, syncService.committedVersion("jane"));
+    }
+
+    // released entries stay until nothing open is older, a batch in between still gets its own range
+    @Test
+    void releasedEntriesAreTrimmed() {
+        long held = syncService.nextVersion("jane");
+        for (int i = 0; i < 3 * SyncService.TRIM_AFTER; i++) {
+            long first = syncService.reserve("jane", 2);
+            syncService.release("jane", first);
+        }
+        // nothing in front of the open reservation may go, its range depends on every count after it
+        assertEquals(held - 1, syncService.committedVersion("jane"));
+
+        syncService.release("jane", held);
+        long last = syncService.nextVersion("jane");
+        syncService.release("jane", last);
+        assertEquals(last, syncService.committedVersion("jane"));
+        assertEquals(1 + 3 * SyncService.TRIM_AFTER * 2 + 1, last);
+        assertTrue(mongoTemplate.findById("jane", SyncCounter.class).getPending().size() <= SyncService.TRIM_AFTER);
+
+        syncService.compactTombstones();
+        assertTrue(mongoTemplate.findById("jane", SyncCounter.class).getPending().isEmpty());
+        assertEquals(last, syncService.committedVersion("jane"));
+    }
+
+    // since from another counter (a restored server, a re-registered account) cannot be trusted
+    @Test
+    void sinceAheadOfTheCounterIsAFullSync() {
+        long version = syncService.nextVersion("jane");
+        mongoTemplate.insert(entry("jane", version));
+        syncService.release("jane", version);
+
+        SyncResult result = syncService.changesSince("jane", 99L);
+        assertTrue(result.full());
+        assertEquals(1, result.entries().size());
+        assertEquals(version, result.version());
+
+        assertFalse(syncService.changesSince("jane", version).full());
+    }
+
+    @Test
+    void concurrentReservationsNeverOverlap() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Long>>> workers = new ArrayList<>();
+            for (int w = 0; w < 8; w++) {
+                workers.add(pool.submit(() -> {
+                    List<Long> versions = new ArrayList<>();
+                    for (int i = 0; i < 50; i++) {
+                        long version = syncService.nextVersion("jane");
+                        versions.add(version);
+                        syncService.release("jane", version);
+                    }
+                    return versions;
+                }));
+            }
+
+            Set<Long> seen = new HashSet<>();
+            for (Future<List<Long>> worker : workers) {
+                for (long version : worker.get()) {
+                    assertTrue(seen.add(version), "version " + version + " handed out twice");
+                }
+            }
+            assertEquals(400, seen.size());
+            assertEquals(400, syncService.committedVersion("jane"));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static DataEntry entry(String username, long version) {
+        DataEntry entry = new DataEntry(username, "Expense", LocalDate.of(2026, 10, 1), "Food", "", 100, "Cash");
+        entry.setVersion(version);
+        return entry;
+    }
+}